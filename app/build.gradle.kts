@@ -24,6 +24,13 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release build signed with the debug key, for the macrobenchmark module.
+        create("benchmark") {
+            initWith(getByName("release"))
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+            isDebuggable = false
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
@@ -32,6 +39,12 @@ android {
     buildFeatures {
         viewBinding = true
     }
+    testOptions {
+        unitTests {
+            // Robolectric needs merged resources to run Room against a real SQLite.
+            isIncludeAndroidResources = true
+        }
+    }
 }
 
 dependencies {
@@ -44,11 +57,16 @@ dependencies {
 
     val room_version = "2.6.1"
     implementation("androidx.room:room-runtime:$room_version")
+    implementation("androidx.room:room-paging:$room_version")
     annotationProcessor("androidx.room:room-compiler:$room_version")
 
+    val paging_version = "3.2.1"
+    implementation("androidx.paging:paging-runtime:$paging_version")
+
     val lifecycle_version = "2.7.0"
     implementation("androidx.lifecycle:lifecycle-viewmodel:$lifecycle_version")
     implementation("androidx.lifecycle:lifecycle-livedata:$lifecycle_version")
+    implementation("androidx.lifecycle:lifecycle-viewmodel-ktx:$lifecycle_version")
 
     val nav_version = "2.7.7"
     implementation("androidx.navigation:navigation-fragment:$nav_version")
@@ -56,11 +74,16 @@ dependencies {
 
     val work_version = "2.9.0"
     implementation("androidx.work:work-runtime:$work_version")
+    testImplementation("androidx.work:work-testing:$work_version")
 
     val preference_version = "1.2.1"
     implementation("androidx.preference:preference:$preference_version")
 
+    implementation("androidx.exifinterface:exifinterface:1.3.7")
+
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures how long the widget's upcoming-tasks read takes while another
+ * thread keeps committing batched updates, for three database setups:
+ * TRUNCATE journaling (Room's fallback on low-RAM devices), Room's defaults,
+ * and DatabaseConfig. Percentiles go to logcat under the DbContention tag and
+ * to the instrumentation status.
+ *
+ * Run on a device or emulator with:
+ * ./gradlew :app:connectedDebugAndroidTest
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.shejan.nextdo.DatabaseContentionBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseContentionBenchmark {
+    private static final String TAG = "DbContention";
+    private static final String NAME = "contention_benchmark.db";
+    private static final int TASKS = 2000;
+    private static final int WRITE_BATCH = 50;
+    private static final int WARMUP_READS = 50;
+    private static final int READS = 500;
+
+    @Test
+    public void readerLatencyUnderWriteLoad() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        long[] truncate = run(context, Room.databaseBuilder(context, AppDatabase.class, NAME)
+                .setJournalMode(RoomDatabase.JournalMode.TRUNCATE), "truncate");
+        long[] defaults = run(context, Room.databaseBuilder(context, AppDatabase.class, NAME), "room-default");
+        long[] configured = run(context,
+                DatabaseConfig.configure(Room.databaseBuilder(context, AppDatabase.class, NAME)), "configured");
+
+        Bundle results = new Bundle();
+        report(results, "truncate", truncate);
+        report(results, "room-default", defaults);
+        report(results, "configured", configured);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+    }
+
+    /** Returns reader latencies in microseconds, sorted. */
+    private long[] run(Context context, RoomDatabase.Builder<AppDatabase> builder, String label)
+            throws InterruptedException {
+        context.deleteDatabase(NAME);
+        AppDatabase database = builder.build();
+        try {
+            TaskDao dao = database.taskDao();
+            List<Task> tasks = seed(dao);
+            if ("configured".equals(label)) {
+                assertTrue(database.getOpenHelper().getWritableDatabase().isWriteAheadLoggingEnabled());
+            }
+
+            AtomicBoolean writing = new AtomicBoolean(true);
+            AtomicInteger commits = new AtomicInteger();
+            Thread writer = new Thread(() -> {
+                int offset = 0;
+                while (writing.get()) {
+                    List<Task> batch = new ArrayList<>(WRITE_BATCH);
+                    for (int i = 0; i < WRITE_BATCH; i++) {
+                        Task task = tasks.get((offset + i) % tasks.size());
+                        task.title = "Task " + offset + "-" + i;
+                        batch.add(task);
+                    }
+                    dao.updateAll(batch);
+                    commits.incrementAndGet();
+                    offset += WRITE_BATCH;
+                }
+            }, "contention-writer");
+            writer.start();
+
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < WARMUP_READS; i++) {
+                dao.getUpcomingTasks(now, 20);
+            }
+            long[] latencies = new long[READS];
+            for (int i = 0; i < READS; i++) {
+                long start = System.nanoTime();
+                dao.getUpcomingTasks(now, 20);
+                latencies[i] = (System.nanoTime() - start) / 1000;
+            }
+
+            writing.set(false);
+            writer.join();
+            Log.i(TAG, label + ": " + commits.get() + " write commits during the run");
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            database.close();
+            context.deleteDatabase(NAME);
+        }
+    }
+
+    private static List<Task> seed(TaskDao dao) {
+        long now = System.currentTimeMillis();
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.title = "Task " + i;
+            task.description = "Description " + i;
+            task.priority = "MEDIUM";
+            task.reminderTime = now + (i + 1) * 60_000L;
+            task.alarmId = i + 1;
+            tasks.add(task);
+        }
+        long[] ids = dao.insertAll(tasks);
+        for (int i = 0; i < ids.length; i++) {
+            tasks.get(i).id = (int) ids[i];
+        }
+        return tasks;
+    }
+
+    private static void report(Bundle results, String label, long[] sortedMicros) {
+        long p50 = percentile(sortedMicros, 50);
+        long p95 = percentile(sortedMicros, 95);
+        long p99 = percentile(sortedMicros, 99);
+        Log.i(TAG, label + " read latency us: p50=" + p50 + " p95=" + p95 + " p99=" + p99
+                + " max=" + sortedMicros[sortedMicros.length - 1]);
+        results.putLong(label + "_p50_us", p50);
+        results.putLong(label + "_p95_us", p95);
+        results.putLong(label + "_p99_us", p99);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -10,8 +10,30 @@ import android.util.Log;
 
 import androidx.preference.PreferenceManager;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class AlarmScheduler {
     private static final String TAG = "AlarmScheduler";
+    public static final String PREF_SINGLE_ALARM_MODE = "single_alarm_mode";
+    // Alarms closer than this are fired right away rather than exactly.
+    private static final long EARLY_FIRE_WINDOW_MS = 5000;
+    // Tasks read per query when a mode switch migrates the existing alarms.
+    private static final int MIGRATE_CHUNK_SIZE = 100;
+    private static final AtomicBoolean queueRearmPending = new AtomicBoolean(false);
+    // Every queue re-arm, dispatch and mode switch runs on this one thread, so the
+    // last head query is also the last setAlarm and an older head can't win.
+    private static final ExecutorService queueExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Context context;
     private final AlarmManager alarmManager;
 
@@ -27,70 +49,116 @@ public class AlarmScheduler {
         }
 
         if (task.reminderTime > 0 && task.alarmId != 0) {
-            // Cancel any existing alarm first
-            cancel(task);
+            if (isSingleAlarmMode()) {
+                // The task row is the queue entry; only the head alarm may need to move.
+                requestQueueRearm();
+                return;
+            }
 
-            Intent intent = new Intent(context, ReminderBroadcastReceiver.class);
-            intent.putExtra(ReminderBroadcastReceiver.EXTRA_TASK_TITLE, task.title);
-            intent.putExtra(ReminderBroadcastReceiver.EXTRA_TASK_ID, task.id);
-            intent.putExtra("alarm_id", task.alarmId);
-            intent.putExtra("task_description", task.description);
+            scheduleTaskAlarm(task);
+        } else {
+            Log.w(TAG, "Invalid task: reminderTime=" + task.reminderTime + ", alarmId=" + task.alarmId);
+        }
+    }
 
-            // CRITICAL FIX: Use FLAG_CANCEL_CURRENT to avoid PendingIntent reuse issues
-            // FLAG_UPDATE_CURRENT can cause extras to be cached/reused incorrectly
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(context, task.alarmId, intent,
-                    PendingIntent.FLAG_CANCEL_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    /**
+     * Bulk form of {@link #schedule} for tasks coming back into the active list
+     * (restore, un-complete). Reminders already in the past are skipped rather
+     * than fired at once. In single-alarm mode this is one queue re-arm.
+     */
+    public void scheduleAll(List<Task> tasks) {
+        if (!areNotificationsEnabled()) {
+            Log.d(TAG, "Notifications disabled, skipping schedule for " + tasks.size() + " tasks");
+            return;
+        }
+        if (isSingleAlarmMode()) {
+            requestQueueRearm();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Task task : tasks) {
+            if (task.reminderTime > now && task.alarmId != 0) {
+                scheduleTaskAlarm(task);
+            }
+        }
+    }
 
-            try {
-                long currentTime = System.currentTimeMillis();
-                long delayMs = task.reminderTime - currentTime;
-
-                Log.d(TAG, "Scheduling alarm for task " + task.id + " at " + task.reminderTime +
-                        " (in " + delayMs + "ms)");
-
-                // For past times or very near times, schedule immediately
-                if (delayMs <= 0) {
-                    // Trigger immediately for past times
-                    Log.d(TAG, "Reminder time in past, triggering immediately");
-                    alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, currentTime + 100, pendingIntent);
-                } else if (delayMs < 5000) {
-                    // For times within 5 seconds, trigger immediately
-                    Log.d(TAG, "Near-future reminder, triggering immediately");
-                    alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, currentTime + 100, pendingIntent);
-                } else if (canScheduleExactAlarms()) {
-                    // Use most reliable alarm method for future times
-                    // Use setExactAndAllowWhileIdle to avoid alarm icon
-                    Log.d(TAG, "Using setExactAndAllowWhileIdle");
-                    alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, task.reminderTime,
-                            pendingIntent);
-                } else {
-                    // Fallback for devices without exact alarm permission
-                    Log.d(TAG, "No exact alarm permission, using setAndAllowWhileIdle");
-                    alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, task.reminderTime, pendingIntent);
-                }
-                Log.d(TAG, "Alarm scheduled successfully for task " + task.id);
-            } catch (Exception e) {
-                // Fallback scheduling with retry
-                Log.e(TAG, "Error scheduling alarm, using fallback: " + e.getMessage());
-                try {
-                    alarmManager.set(AlarmManager.RTC_WAKEUP, task.reminderTime, pendingIntent);
-                    Log.d(TAG, "Fallback scheduling succeeded");
-                } catch (Exception fallbackError) {
-                    Log.e(TAG, "Fallback scheduling also failed: " + fallbackError.getMessage());
-                }
+    /** Bulk form of {@link #cancel}; in single-alarm mode this adds one queue re-arm. */
+    public void cancelAll(List<Task> tasks) {
+        for (Task task : tasks) {
+            cancelTaskAlarm(task);
+        }
+        if (isSingleAlarmMode()) {
+            requestQueueRearm();
+        }
+    }
+
+    private void scheduleTaskAlarm(Task task) {
+        // Cancel any existing alarm first
+        cancelTaskAlarm(task);
+        armTaskAlarm(task);
+    }
+
+    /**
+     * Boot-time form of {@link #scheduleAll} for RescheduleWorker: arms each task
+     * whose alarm isn't registered yet, without the cancel. A resumed run skips
+     * what the interrupted one (or the app in the meantime) already armed.
+     * Returns the number of alarms set.
+     */
+    int restoreAlarms(List<Task> tasks) {
+        int armed = 0;
+        for (Task task : tasks) {
+            if (isTaskAlarmRegistered(task)) {
+                continue;
             }
-        } else {
-            Log.w(TAG, "Invalid task: reminderTime=" + task.reminderTime + ", alarmId=" + task.alarmId);
+            armTaskAlarm(task);
+            armed++;
         }
+        return armed;
+    }
+
+    // cancelTaskAlarm cancels the PendingIntent along with the alarm, so an
+    // existing one means the alarm is still set.
+    private boolean isTaskAlarmRegistered(Task task) {
+        Intent intent = new Intent(context, ReminderBroadcastReceiver.class);
+        return PendingIntent.getBroadcast(context, task.alarmId, intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE) != null;
+    }
+
+    private void armTaskAlarm(Task task) {
+        Intent intent = new Intent(context, ReminderBroadcastReceiver.class);
+        intent.putExtra(ReminderBroadcastReceiver.EXTRA_TASK_TITLE, task.title);
+        intent.putExtra(ReminderBroadcastReceiver.EXTRA_TASK_ID, task.id);
+        intent.putExtra("alarm_id", task.alarmId);
+        intent.putExtra("task_description", task.description);
+
+        // CRITICAL FIX: Use FLAG_CANCEL_CURRENT to avoid PendingIntent reuse issues
+        // FLAG_UPDATE_CURRENT can cause extras to be cached/reused incorrectly
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, task.alarmId, intent,
+                PendingIntent.FLAG_CANCEL_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        Log.d(TAG, "Scheduling alarm for task " + task.id + " at " + task.reminderTime);
+        setAlarm(task.reminderTime, pendingIntent);
     }
 
     public void cancel(Task task) {
+        // Also in single-alarm mode: a snoozed reminder is re-armed on the task's
+        // own alarmId PendingIntent, which the queue re-arm doesn't touch.
+        cancelTaskAlarm(task);
+        if (isSingleAlarmMode()) {
+            // Completed/deleted tasks drop out of the queue query by themselves.
+            requestQueueRearm();
+        }
+    }
+
+    private void cancelTaskAlarm(Task task) {
         if (task.alarmId != 0) {
             try {
                 Intent intent = new Intent(context, ReminderBroadcastReceiver.class);
                 PendingIntent pendingIntent = PendingIntent.getBroadcast(context, task.alarmId, intent,
                         PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
                 alarmManager.cancel(pendingIntent);
+                pendingIntent.cancel();
                 Log.d(TAG, "Alarm cancelled for task " + task.id);
             } catch (Exception e) {
                 Log.e(TAG, "Error cancelling alarm: " + e.getMessage());
@@ -98,7 +166,195 @@ public class AlarmScheduler {
         }
     }
 
-    private boolean areNotificationsEnabled() {
+    private void setAlarm(long triggerAtMillis, PendingIntent pendingIntent) {
+        try {
+            long currentTime = System.currentTimeMillis();
+            long delayMs = triggerAtMillis - currentTime;
+
+            Log.d(TAG, "Setting alarm at " + triggerAtMillis + " (in " + delayMs + "ms)");
+
+            // For past times or very near times, schedule immediately
+            if (delayMs <= 0) {
+                // Trigger immediately for past times
+                Log.d(TAG, "Reminder time in past, triggering immediately");
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, currentTime + 100, pendingIntent);
+            } else if (delayMs < EARLY_FIRE_WINDOW_MS) {
+                // For times within 5 seconds, trigger immediately
+                Log.d(TAG, "Near-future reminder, triggering immediately");
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, currentTime + 100, pendingIntent);
+            } else if (canScheduleExactAlarms()) {
+                // Use most reliable alarm method for future times
+                // Use setExactAndAllowWhileIdle to avoid alarm icon
+                Log.d(TAG, "Using setExactAndAllowWhileIdle");
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
+            } else {
+                // Fallback for devices without exact alarm permission
+                Log.d(TAG, "No exact alarm permission, using setAndAllowWhileIdle");
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
+            }
+            Log.d(TAG, "Alarm scheduled successfully");
+        } catch (Exception e) {
+            // Fallback scheduling with retry
+            Log.e(TAG, "Error scheduling alarm, using fallback: " + e.getMessage());
+            try {
+                alarmManager.set(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
+                Log.d(TAG, "Fallback scheduling succeeded");
+            } catch (Exception fallbackError) {
+                Log.e(TAG, "Fallback scheduling also failed: " + fallbackError.getMessage());
+            }
+        }
+    }
+
+    // --- Single-alarm mode ---------------------------------------------------
+    // Instead of one AlarmManager registration per task, the tasks table itself
+    // is the due queue (ordered by the reminderTime index) and only its head is
+    // armed. When that alarm fires, ReminderQueueReceiver delivers every due
+    // reminder not yet marked in notifiedReminderTime and arms the next head.
+    // Boot and bulk edits cost a single IPC instead of one per task.
+
+    public boolean isSingleAlarmMode() {
+        return PreferenceManager.getDefaultSharedPreferences(context).getBoolean(PREF_SINGLE_ALARM_MODE, false);
+    }
+
+    /**
+     * Switches between per-task alarms and the single-alarm queue, migrating the
+     * existing registrations once. Runs on the reminder queue thread.
+     */
+    public void setSingleAlarmMode(boolean enabled) {
+        queueExecutor.execute(() -> {
+            try {
+                long now = System.currentTimeMillis();
+                if (enabled) {
+                    // Per-task alarms have delivered everything up to now; only
+                    // later reminders belong to the queue.
+                    writeAndWait(dao -> dao.markPastRemindersNotified(now));
+                }
+                PreferenceManager.getDefaultSharedPreferences(context).edit()
+                        .putBoolean(PREF_SINGLE_ALARM_MODE, enabled).commit();
+
+                // Only active tasks with a reminder after now have a per-task alarm;
+                // walk those in keyset chunks instead of loading every row.
+                TaskDao taskDao = AppDatabase.getDatabase(context).taskDao();
+                long afterTime = now;
+                int afterId = Integer.MAX_VALUE;
+                while (true) {
+                    List<Task> chunk = taskDao.getRemindersAfter(afterTime, afterId, MIGRATE_CHUNK_SIZE);
+                    for (Task task : chunk) {
+                        if (enabled) {
+                            cancelTaskAlarm(task);
+                        } else {
+                            schedule(task);
+                        }
+                    }
+                    if (chunk.size() < MIGRATE_CHUNK_SIZE) {
+                        break;
+                    }
+                    Task last = chunk.get(chunk.size() - 1);
+                    afterTime = last.reminderTime;
+                    afterId = last.id;
+                }
+
+                if (enabled) {
+                    rearmQueue();
+                } else {
+                    alarmManager.cancel(queuePendingIntent());
+                }
+                Log.d(TAG, "Single alarm mode " + (enabled ? "enabled" : "disabled"));
+            } catch (Exception e) {
+                Log.e(TAG, "Error switching alarm mode: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Re-arms the queue head on the reminder queue thread. Requests made while one
+     * is already pending collapse into it, so a burst of edits costs one query and
+     * one AlarmManager call.
+     */
+    public void requestQueueRearm() {
+        if (!queueRearmPending.compareAndSet(false, true)) {
+            return;
+        }
+        queueExecutor.execute(() -> {
+            queueRearmPending.set(false);
+            try {
+                rearmQueue();
+            } catch (Exception e) {
+                Log.e(TAG, "Error re-arming reminder queue: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Delivers due reminders on the reminder queue thread, then runs
+     * {@code onComplete} (also when delivery fails).
+     */
+    void dispatchDueRemindersAsync(Runnable onComplete) {
+        queueExecutor.execute(() -> {
+            try {
+                dispatchDueReminders();
+            } catch (Exception e) {
+                Log.e(TAG, "Error dispatching due reminders: " + e.getMessage(), e);
+            } finally {
+                onComplete.run();
+            }
+        });
+    }
+
+    /** Arms the alarm for the earliest pending reminder. Only runs on the reminder queue thread. */
+    private void rearmQueue() {
+        PendingIntent pendingIntent = queuePendingIntent();
+        if (!areNotificationsEnabled() || !isSingleAlarmMode()) {
+            alarmManager.cancel(pendingIntent);
+            return;
+        }
+
+        // An undelivered reminder in the past (edited back, clock moved) fires at once.
+        Long next = AppDatabase.getDatabase(context).taskDao().getNextReminderTime();
+        if (next == null) {
+            Log.d(TAG, "Reminder queue empty, no alarm armed");
+            alarmManager.cancel(pendingIntent);
+            return;
+        }
+        Log.d(TAG, "Arming reminder queue for " + next);
+        setAlarm(next, pendingIntent);
+    }
+
+    /** Delivers every due reminder that hasn't been delivered yet and arms the next one. */
+    private void dispatchDueReminders() throws InterruptedException {
+        // setAlarm() fires near-future reminders early, so count those as due too.
+        long upTo = System.currentTimeMillis() + EARLY_FIRE_WINDOW_MS;
+
+        // Mark before delivering: a crash mid-dispatch may drop a reminder, but
+        // never repeats one.
+        AtomicReference<List<Task>> claimed = new AtomicReference<>(Collections.emptyList());
+        writeAndWait(dao -> claimed.set(dao.claimDueReminders(upTo)));
+        List<Task> due = claimed.get();
+
+        Log.d(TAG, "Dispatching " + due.size() + " due reminders");
+        if (areNotificationsEnabled()) {
+            // One batch, so a burst is grouped under a single alerting summary.
+            ReminderBroadcastReceiver.deliverAll(context, due);
+        }
+        rearmQueue();
+    }
+
+    // Queue bookkeeping is a task write like any other, so it goes through
+    // TaskWriteQueue; the queue thread waits for it to keep its reads in order.
+    // A failed write has been logged by the queue; the caller carries on.
+    private void writeAndWait(TaskWriteQueue.Action action) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        TaskWriteQueue.getInstance(context).execute(action, false, done::countDown, e -> done.countDown());
+        done.await();
+    }
+
+    private PendingIntent queuePendingIntent() {
+        Intent intent = new Intent(context, ReminderQueueReceiver.class);
+        return PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    boolean areNotificationsEnabled() {
         SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
         return sharedPreferences.getBoolean("notifications", true);
     }
@@ -12,13 +12,18 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 // DEFINITIVE FIX: Upgrading the database to version 2.
-@Database(entities = { Task.class }, version = 4, exportSchema = false)
+@Database(entities = { Task.class, TaskFts.class }, version = 9, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
     public abstract TaskDao taskDao();
 
     private static volatile AppDatabase INSTANCE;
     private static final int NUMBER_OF_THREADS = 4;
+    // Background work for receivers and the scheduler. Task mutations coming from
+    // the UI are serialized through TaskWriteQueue instead.
     public static final ExecutorService databaseWriteExecutor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+    // One-off reads outside LiveData/Paging. Room runs its own queries here too
+    // (see DatabaseConfig), so reads never queue behind writes.
+    public static final ExecutorService databaseReadExecutor = DatabaseConfig.databaseReadExecutor;
 
     static final Migration MIGRATION_1_2 = new Migration(1, 2) {
         @Override
@@ -42,13 +47,78 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isDeleted_isCompleted` "
+                    + "ON `tasks` (`isDeleted`, `isCompleted`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isDeleted_isCompleted_reminderTime` "
+                    + "ON `tasks` (`isDeleted`, `isCompleted`, `reminderTime`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isDeleted_deletedTimestamp` "
+                    + "ON `tasks` (`isDeleted`, `deletedTimestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isCompleted_completedTimestamp` "
+                    + "ON `tasks` (`isCompleted`, `completedTimestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_alarmId` ON `tasks` (`alarmId`)");
+        }
+    };
+
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE tasks ADD COLUMN repeatAnchor INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    // Room only creates the FTS table and its sync triggers for new databases;
+    // the statements below match what it generates for TaskFts.
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `TaskFts` USING FTS4("
+                    + "`title` TEXT, `description` TEXT, content=`tasks`)");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_TaskFts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `tasks` BEGIN DELETE FROM `TaskFts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_TaskFts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `tasks` BEGIN DELETE FROM `TaskFts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_TaskFts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `tasks` BEGIN INSERT INTO `TaskFts`(`docid`, `title`, `description`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_TaskFts_AFTER_INSERT "
+                    + "AFTER INSERT ON `tasks` BEGIN INSERT INTO `TaskFts`(`docid`, `title`, `description`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+            // Index the tasks that already exist.
+            database.execSQL("INSERT INTO `TaskFts`(`TaskFts`) VALUES ('rebuild')");
+        }
+    };
+
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isDeleted_isCompleted_priority` "
+                    + "ON `tasks` (`isDeleted`, `isCompleted`, `priority`)");
+        }
+    };
+
+    // Reminders that were already due were delivered by the previous version
+    // (per-task alarm or queue watermark), so they start out as delivered.
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE tasks ADD COLUMN notifiedReminderTime INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("UPDATE tasks SET notifiedReminderTime = reminderTime WHERE reminderTime > 0 "
+                    + "AND reminderTime <= CAST(strftime('%s', 'now') AS INTEGER) * 1000");
+        }
+    };
+
     public static AppDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
-                            AppDatabase.class, "task_database")
-                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+                    INSTANCE = DatabaseConfig.configure(Room.databaseBuilder(context.getApplicationContext(),
+                            AppDatabase.class, "task_database"))
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5,
+                                    MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8,
+                                    MIGRATION_8_9)
                             .build();
                 }
             }
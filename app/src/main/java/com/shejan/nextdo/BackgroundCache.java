@@ -0,0 +1,98 @@
+package com.shejan.nextdo;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.LruCache;
+
+/**
+ * App-wide cache of decoded background bitmaps, held by NextDOApplication.
+ *
+ * Entries are keyed by background id and the size they were decoded for (see
+ * {@link #key}), and the cache is bounded by bytes. Every screen that shows the
+ * wallpaper goes through it, so switching screens or resuming reuses the bitmap
+ * that is already on screen instead of decoding the resource again.
+ */
+public final class BackgroundCache {
+    private static final String TAG = "BackgroundCache";
+
+    private final LruCache<String, Bitmap> cache;
+
+    BackgroundCache(int maxKilobytes) {
+        cache = new LruCache<String, Bitmap>(maxKilobytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return Math.max(1, bitmap.getByteCount() / 1024);
+            }
+        };
+    }
+
+    /** Sized at 1/8 of the heap, enough for the current and the previous wallpaper. */
+    static BackgroundCache createDefault() {
+        int maxKilobytes = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8);
+        return new BackgroundCache(maxKilobytes);
+    }
+
+    /** The cache owned by the application. */
+    public static BackgroundCache get(Context context) {
+        return ((NextDOApplication) context.getApplicationContext()).getBackgroundCache();
+    }
+
+    /** Cache key for {@code backgroundId} decoded to cover {@code width} x {@code height}. */
+    public static String key(String backgroundId, int width, int height) {
+        return backgroundId + "@" + width + "x" + height;
+    }
+
+    public Bitmap get(String key) {
+        return cache.get(key);
+    }
+
+    public void put(String key, Bitmap bitmap) {
+        if (key != null && bitmap != null) {
+            cache.put(key, bitmap);
+        }
+    }
+
+    /**
+     * Releases memory according to an {@link ComponentCallbacks2} trim level.
+     * Bitmaps still attached to a view stay alive through the view; the cache
+     * only drops its own reference.
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            // Next in line to be killed; nothing here is worth keeping.
+            cache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            cache.trimToSize(cache.maxSize() / 2);
+        } else if (level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            // Keep the wallpaper we'll most likely come back to.
+            cache.trimToSize(cache.maxSize() / 4 * 3);
+        }
+        Log.d(TAG, "onTrimMemory(" + level + "): " + stats());
+    }
+
+    public int getHitCount() {
+        return cache.hitCount();
+    }
+
+    public int getMissCount() {
+        return cache.missCount();
+    }
+
+    public int getEvictionCount() {
+        return cache.evictionCount();
+    }
+
+    /** Size in kilobytes currently held. */
+    public int size() {
+        return cache.size();
+    }
+
+    public String stats() {
+        return "hits=" + cache.hitCount() + ", misses=" + cache.missCount() + ", evictions="
+                + cache.evictionCount() + ", size=" + cache.size() + "/" + cache.maxSize() + " KB";
+    }
+}
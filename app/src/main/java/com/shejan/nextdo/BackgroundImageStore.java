@@ -0,0 +1,328 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
+
+import androidx.exifinterface.media.ExifInterface;
+import androidx.preference.PreferenceManager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Imports and loads the app background.
+ *
+ * Importing streams the picked image through a bounds-only decode, decodes it
+ * with inSampleSize close to the display size, applies the EXIF orientation
+ * and re-encodes a display-sized JPEG, all off the main thread. Every import
+ * bumps a version stored in preferences. Decoded backgrounds, bundled or
+ * imported, live in the app-wide {@link BackgroundCache} under their id (the
+ * version for imports) and display size, so returning to a screen that shows
+ * the wallpaper costs no decode.
+ */
+public final class BackgroundImageStore {
+    private static final String TAG = "BackgroundImageStore";
+    static final String FILE_NAME = "custom_background.jpg";
+    static final String CUSTOM = "custom";
+    private static final String PREF_VERSION = "custom_background_version";
+    private static final int JPEG_QUALITY = 90;
+
+    public interface Callback {
+        void onResult(Bitmap bitmap);
+    }
+
+    // Created on first use so the pure sizing math doesn't need a Looper.
+    private static final class Threads {
+        static final ExecutorService IO = Executors.newSingleThreadExecutor();
+        static final Handler MAIN = new Handler(Looper.getMainLooper());
+    }
+
+    private BackgroundImageStore() {
+    }
+
+    /** Version of the imported file; changes on every import. */
+    public static long getVersion(Context context) {
+        return PreferenceManager.getDefaultSharedPreferences(context).getLong(PREF_VERSION, 0);
+    }
+
+    public static boolean exists(Context context) {
+        return new File(context.getFilesDir(), FILE_NAME).exists();
+    }
+
+    /** Bundled drawable for an "app_background" value, or 0 if it isn't one. */
+    static int drawableFor(String background) {
+        switch (background) {
+            case "bg_night_cottage":
+                return R.drawable.bg_night_cottage;
+            case "bg_urban_sketch":
+                return R.drawable.bg_urban_sketch;
+            case "bg_mystic_tree":
+                return R.drawable.bg_mystic_tree;
+            case "bg_dark_waves":
+                return R.drawable.bg_dark_waves;
+            default:
+                return 0;
+        }
+    }
+
+    /** Whether {@code background} is an image (bundled, or an existing import) rather than the theme default. */
+    public static boolean isImage(Context context, String background) {
+        return CUSTOM.equals(background) ? exists(context) : drawableFor(background) != 0;
+    }
+
+    /** {@link BackgroundCache} key of {@code background} at the display size. */
+    public static String cacheKey(Context context, String background) {
+        String id = CUSTOM.equals(background) ? CUSTOM + ":" + getVersion(context) : background;
+        int[] target = displaySize(context);
+        return BackgroundCache.key(id, target[0], target[1]);
+    }
+
+    /** The decoded background if it is already in memory, else null. */
+    public static Bitmap getCached(Context context, String background) {
+        return BackgroundCache.get(context).get(cacheKey(context, background));
+    }
+
+    /**
+     * Decodes {@code background} at display size off the main thread and caches
+     * it. {@code callback} runs on the main thread; the result may be null.
+     */
+    public static void load(Context context, String background, Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        final String key = cacheKey(appContext, background);
+        Threads.IO.execute(() -> {
+            // Another screen may have queued the same decode.
+            Bitmap bitmap = BackgroundCache.get(appContext).get(key);
+            if (bitmap == null) {
+                try {
+                    bitmap = CUSTOM.equals(background) ? decodeFile(appContext)
+                            : decodeResource(appContext, drawableFor(background));
+                } catch (Exception e) {
+                    Log.e(TAG, "Error loading background: " + e.getMessage(), e);
+                }
+                BackgroundCache.get(appContext).put(key, bitmap);
+            }
+            final Bitmap result = bitmap;
+            Threads.MAIN.post(() -> callback.onResult(result));
+        });
+    }
+
+    private static Bitmap decodeFile(Context context) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        if (!file.exists()) {
+            return null;
+        }
+        // Files imported before versioning may be full resolution.
+        int[] target = displaySize(context);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, target[0], target[1]);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(file.getAbsolutePath(), options);
+    }
+
+    private static Bitmap decodeResource(Context context, int drawableId) {
+        if (drawableId == 0) {
+            return null;
+        }
+        // The art lives in drawable/ (mdpi), so the default decode would upscale it
+        // by the screen density. Decode at its own size and fit it to the display instead.
+        int[] target = displaySize(context);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(context.getResources(), drawableId, options);
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, target[0], target[1]);
+        options.inJustDecodeBounds = false;
+        Bitmap decoded = BitmapFactory.decodeResource(context.getResources(), drawableId, options);
+        if (decoded == null) {
+            return null;
+        }
+        float scale = coverScale(decoded.getWidth(), decoded.getHeight(), target[0], target[1]);
+        if (scale >= 1f) {
+            return decoded;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, Math.max(1, Math.round(decoded.getWidth() * scale)),
+                Math.max(1, Math.round(decoded.getHeight() * scale)), true);
+        if (scaled != decoded) {
+            decoded.recycle();
+        }
+        return scaled;
+    }
+
+    /**
+     * Imports {@code uri} as the custom background. {@code callback} runs on the
+     * main thread with the new bitmap, or null if the import failed.
+     */
+    public static void importImage(Context context, Uri uri, Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        Threads.IO.execute(() -> {
+            Bitmap result = null;
+            try {
+                result = decodeForDisplay(appContext, uri);
+                if (result != null) {
+                    writeAtomically(appContext, result);
+                    long version = System.currentTimeMillis();
+                    SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(appContext);
+                    prefs.edit().putLong(PREF_VERSION, version).apply();
+                    int[] target = displaySize(appContext);
+                    BackgroundCache.get(appContext).put(
+                            BackgroundCache.key(CUSTOM + ":" + version, target[0], target[1]), result);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error importing background: " + e.getMessage(), e);
+                result = null;
+            }
+            final Bitmap bitmap = result;
+            Threads.MAIN.post(() -> callback.onResult(bitmap));
+        });
+    }
+
+    private static Bitmap decodeForDisplay(Context context, Uri uri) throws Exception {
+        int[] target = displaySize(context);
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        int orientation = ExifInterface.ORIENTATION_NORMAL;
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            if (in != null) {
+                orientation = new ExifInterface(in).getAttributeInt(ExifInterface.TAG_ORIENTATION,
+                        ExifInterface.ORIENTATION_NORMAL);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read EXIF orientation: " + e.getMessage());
+        }
+        // Compare against the display in the image's upright orientation.
+        boolean swapsAxes = orientation == ExifInterface.ORIENTATION_ROTATE_90
+                || orientation == ExifInterface.ORIENTATION_ROTATE_270
+                || orientation == ExifInterface.ORIENTATION_TRANSPOSE
+                || orientation == ExifInterface.ORIENTATION_TRANSVERSE;
+        int sourceWidth = swapsAxes ? options.outHeight : options.outWidth;
+        int sourceHeight = swapsAxes ? options.outWidth : options.outHeight;
+
+        options.inSampleSize = calculateInSampleSize(sourceWidth, sourceHeight, target[0], target[1]);
+        options.inJustDecodeBounds = false;
+        Bitmap decoded;
+        try (InputStream in = context.getContentResolver().openInputStream(uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            return null;
+        }
+
+        // One pass for the rotation/flip and the final scale down to display size.
+        Matrix matrix = orientationMatrix(orientation);
+        int uprightWidth = swapsAxes ? decoded.getHeight() : decoded.getWidth();
+        int uprightHeight = swapsAxes ? decoded.getWidth() : decoded.getHeight();
+        float scale = coverScale(uprightWidth, uprightHeight, target[0], target[1]);
+        if (scale < 1f) {
+            matrix.postScale(scale, scale);
+        }
+        if (matrix.isIdentity()) {
+            return decoded;
+        }
+        Bitmap transformed = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix,
+                true);
+        if (transformed != decoded) {
+            decoded.recycle();
+        }
+        return transformed;
+    }
+
+    private static void writeAtomically(Context context, Bitmap bitmap) throws Exception {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        File temp = new File(context.getFilesDir(), FILE_NAME + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new java.io.IOException("Could not replace " + file);
+        }
+    }
+
+    private static int[] displaySize(Context context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        // Portrait-oriented target; the app is portrait.
+        int width = Math.min(metrics.widthPixels, metrics.heightPixels);
+        int height = Math.max(metrics.widthPixels, metrics.heightPixels);
+        return new int[] { width, height };
+    }
+
+    private static Matrix orientationMatrix(int orientation) {
+        Matrix matrix = new Matrix();
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.setScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.setRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.setScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.setRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.setRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.setRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.setRotate(-90);
+                break;
+            default:
+                break;
+        }
+        return matrix;
+    }
+
+    /**
+     * Largest power-of-two sample size that still leaves the decoded image at
+     * least as large as the target in both dimensions.
+     */
+    static int calculateInSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            return sampleSize;
+        }
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Scale (at most 1) at which the image still covers the target in both
+     * dimensions, i.e. what a center-crop needs.
+     */
+    static float coverScale(int width, int height, int targetWidth, int targetHeight) {
+        if (width <= 0 || height <= 0 || targetWidth <= 0 || targetHeight <= 0) {
+            return 1f;
+        }
+        float scale = Math.max(targetWidth / (float) width, targetHeight / (float) height);
+        return Math.min(1f, scale);
+    }
+}
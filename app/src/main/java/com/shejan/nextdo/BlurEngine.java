@@ -0,0 +1,158 @@
+package com.shejan.nextdo;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+import android.view.View;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Produces the blurred drawer backdrop for devices without RenderEffect.
+ *
+ * The content view is drawn straight into a bitmap at {@link #SCALE} of its
+ * size (no full-size copy), the StackBlur runs on a background thread, and the
+ * snapshot, pixel buffer, blur scratch arrays and two output bitmaps are reused
+ * across calls. The last result is handed out again until {@link #invalidate()}
+ * is called. All public methods must be called on the main thread.
+ */
+public final class BlurEngine {
+    private static final String TAG = "BlurEngine";
+    static final float SCALE = 0.2f; // 1/5th size
+    static final int RADIUS = 20;
+
+    public interface Callback {
+        void onBlurReady(Bitmap blurred);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        r.run();
+    }, "blur-engine"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final StackBlur.Workspace workspace = new StackBlur.Workspace();
+    private final Canvas canvas = new Canvas();
+
+    private Bitmap snapshot;
+    private int[] pixels;
+    // Double buffer: the background thread writes into the one not on screen.
+    private Bitmap[] outputs = new Bitmap[2];
+    private int front = -1;
+    private boolean dirty = true;
+    private boolean inFlight;
+    private boolean released;
+    private Callback pendingCallback;
+
+    /** Marks the cached blur stale; the next {@link #request} re-renders. */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Delivers a blur of {@code content} to {@code callback}: immediately if the
+     * cached one is still valid, otherwise once the background blur finishes.
+     */
+    public void request(View content, Callback callback) {
+        if (released) {
+            return;
+        }
+        pendingCallback = callback;
+        int w = Math.round(content.getWidth() * SCALE);
+        int h = Math.round(content.getHeight() * SCALE);
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (snapshot == null || snapshot.getWidth() != w || snapshot.getHeight() != h) {
+            dirty = true;
+        }
+        if (!dirty && front >= 0) {
+            deliver();
+            return;
+        }
+        if (inFlight) {
+            // The running blur delivers when done.
+            return;
+        }
+        render(content, w, h);
+    }
+
+    /** Drops the pending callback, e.g. when the drawer closed before the blur was ready. */
+    public void cancel() {
+        pendingCallback = null;
+    }
+
+    public void release() {
+        released = true;
+        pendingCallback = null;
+        executor.shutdown();
+        snapshot = null;
+        outputs = new Bitmap[2];
+        front = -1;
+    }
+
+    private void render(View content, int w, int h) {
+        try {
+            if (snapshot == null || snapshot.getWidth() != w || snapshot.getHeight() != h) {
+                snapshot = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+                pixels = new int[w * h];
+                outputs = new Bitmap[2];
+                front = -1;
+            }
+
+            snapshot.eraseColor(Color.TRANSPARENT);
+            canvas.setBitmap(snapshot);
+            canvas.save();
+            canvas.scale(w / (float) content.getWidth(), h / (float) content.getHeight());
+            content.draw(canvas);
+            canvas.restore();
+            canvas.setBitmap(null);
+            snapshot.getPixels(pixels, 0, w, 0, 0, w, h);
+            dirty = false;
+
+            final int back = front == 0 ? 1 : 0;
+            if (outputs[back] == null) {
+                outputs[back] = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            }
+            final Bitmap target = outputs[back];
+            final Bitmap[] targetOutputs = outputs;
+            final int[] buffer = pixels;
+
+            inFlight = true;
+            executor.execute(() -> {
+                StackBlur.blur(buffer, w, h, RADIUS, workspace);
+                target.setPixels(buffer, 0, w, 0, 0, w, h);
+                mainHandler.post(() -> onRendered(targetOutputs, back));
+            });
+        } catch (Exception e) {
+            inFlight = false;
+            Log.e(TAG, "Error creating blur effect", e);
+        }
+    }
+
+    private void onRendered(Bitmap[] renderedInto, int index) {
+        inFlight = false;
+        if (released) {
+            return;
+        }
+        if (renderedInto != outputs) {
+            // The content was resized while blurring; this result is stale.
+            dirty = true;
+            return;
+        }
+        front = index;
+        deliver();
+    }
+
+    private void deliver() {
+        Callback callback = pendingCallback;
+        pendingCallback = null;
+        if (callback != null && front >= 0) {
+            callback.onBlurReady(outputs[front]);
+        }
+    }
+}
@@ -4,10 +4,13 @@ import android.os.Bundle;
 import android.view.View;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.shejan.nextdo.databinding.ActivityCompletedTasksBinding;
 
+import kotlin.Unit;
+
 public class CompletedTasksActivity extends AppCompatActivity {
 
     private ActivityCompletedTasksBinding binding;
@@ -60,18 +63,17 @@ public class CompletedTasksActivity extends AppCompatActivity {
         TaskListAdapter adapter = new TaskListAdapter(new TaskListAdapter.TaskDiff(),
                 new TaskListAdapter.OnTaskInteractionListener() {
                     @Override
-                    public void onTaskCompleted(Task task, boolean isCompleted) {
-                        task.isCompleted = isCompleted;
-                        taskViewModel.update(task);
+                    public void onTaskCompleted(TaskListItem task, boolean isCompleted) {
+                        taskViewModel.setCompleted(task, isCompleted);
                     }
 
                     @Override
-                    public void onTaskClicked(Task task) {
+                    public void onTaskClicked(TaskListItem task) {
                         // Optional: Allow editing completed tasks?
                     }
 
                     @Override
-                    public void onTaskLongClicked(Task task) {
+                    public void onTaskLongClicked(TaskListItem task) {
                         // Optional: Show options
                     }
                 });
@@ -79,10 +81,11 @@ public class CompletedTasksActivity extends AppCompatActivity {
         binding.recyclerviewCompletedTasks.setLayoutManager(new LinearLayoutManager(this));
 
         // Observe completed tasks
-        taskViewModel.getCompletedTasks().observe(this, tasks -> {
-            if (tasks != null) {
-                adapter.submitList(tasks);
-                if (tasks.isEmpty()) {
+        taskViewModel.getCompletedTasksPaged().observe(this,
+                pagingData -> adapter.submit(getLifecycle(), pagingData));
+        adapter.addLoadStateListener(loadStates -> {
+            if (loadStates.getSource().getRefresh() instanceof LoadState.NotLoading) {
+                if (adapter.getItemCount() == 0) {
                     binding.emptyView.setVisibility(View.VISIBLE);
                     binding.recyclerviewCompletedTasks.setVisibility(View.GONE);
                 } else {
@@ -90,6 +93,7 @@ public class CompletedTasksActivity extends AppCompatActivity {
                     binding.recyclerviewCompletedTasks.setVisibility(View.VISIBLE);
                 }
             }
+            return Unit.INSTANCE;
         });
     }
 }
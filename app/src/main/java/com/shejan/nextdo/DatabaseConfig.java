@@ -0,0 +1,93 @@
+package com.shejan.nextdo;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Connection settings for AppDatabase. The widget, receivers and UI read while
+ * TaskWriteQueue and the background executor write. With WAL those reads don't
+ * wait for a write to commit, and each commit costs one WAL append instead of a
+ * rollback-journal rewrite.
+ *
+ * The PRAGMAs below are set in onOpen, which only sees the platform's primary
+ * connection. journal_mode = WAL is stored in the file and holds for every
+ * connection. synchronous, wal_autocheckpoint and journal_size_limit act on
+ * commits and checkpoints, and every write runs on the primary connection, so
+ * setting them there is enough. cache_size is per connection and reaches
+ * only the primary: writes and reads inside a transaction (e.g.
+ * TimelinePagingSource) use it. The framework opens the pooled read
+ * connections itself, with no hook, so plain reads keep SQLite's default cache.
+ */
+final class DatabaseConfig extends RoomDatabase.Callback {
+    private static final String TAG = "DatabaseConfig";
+
+    // NORMAL is durable in WAL mode except against power loss right after a
+    // commit, and skips an fsync per transaction.
+    static final int SYNCHRONOUS_NORMAL = 1;
+    // Sent negated, which SQLite reads as KiB. 2 MiB holds the task table and its
+    // indexes for a typical list. Primary connection only (see above).
+    static final int CACHE_SIZE_KIB = 2048;
+    // Checkpoint after ~2 MiB of WAL (4 KiB pages) rather than SQLite's 1000
+    // pages, so readers scan a shorter log.
+    static final int WAL_AUTOCHECKPOINT_PAGES = 500;
+    // Truncate the WAL file back to this size after a checkpoint so one bulk
+    // operation doesn't leave a large file behind.
+    static final long JOURNAL_SIZE_LIMIT_BYTES = 4L * 1024 * 1024;
+
+    // One fewer than the platform's default WAL pool of four connections, which
+    // leaves the primary connection free for writers.
+    private static final int READ_THREADS = 3;
+
+    static final ExecutorService databaseReadExecutor = Executors.newFixedThreadPool(READ_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "db-read");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DatabaseConfig() {
+    }
+
+    /**
+     * Applies the journal mode, the read executor and the primary-connection
+     * PRAGMAs to a builder. Writes keep going through TaskWriteQueue and
+     * AppDatabase.databaseWriteExecutor.
+     */
+    static <T extends RoomDatabase> RoomDatabase.Builder<T> configure(RoomDatabase.Builder<T> builder) {
+        // AUTOMATIC falls back to TRUNCATE on low-RAM devices; ask for WAL explicitly.
+        return builder.setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .setQueryExecutor(databaseReadExecutor)
+                .addCallback(new DatabaseConfig());
+    }
+
+    @Override
+    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        String journalMode = pragma(db, "PRAGMA journal_mode");
+        if (!db.isWriteAheadLoggingEnabled() || !"wal".equalsIgnoreCase(journalMode)) {
+            // In-memory databases (tests) can't use WAL; anything else is unexpected.
+            Log.e(TAG, "WAL not active, journal_mode=" + journalMode);
+        }
+        pragma(db, "PRAGMA synchronous = " + SYNCHRONOUS_NORMAL);
+        pragma(db, "PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+        pragma(db, "PRAGMA wal_autocheckpoint = " + WAL_AUTOCHECKPOINT_PAGES);
+        pragma(db, "PRAGMA journal_size_limit = " + JOURNAL_SIZE_LIMIT_BYTES);
+        Log.d(TAG, "Opened with journal_mode=" + journalMode
+                + ", synchronous=" + pragma(db, "PRAGMA synchronous"));
+    }
+
+    /**
+     * Runs a PRAGMA through query() because several of them return a row, which
+     * execSQL rejects. Returns the first column of the first row, or null.
+     */
+    static String pragma(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+}
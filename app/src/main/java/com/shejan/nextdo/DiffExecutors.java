@@ -0,0 +1,39 @@
+package com.shejan.nextdo;
+
+import android.os.Process;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import kotlinx.coroutines.CoroutineDispatcher;
+import kotlinx.coroutines.ExecutorsKt;
+
+/**
+ * Background pool shared by every list adapter for diffing and page
+ * presentation, instead of each one using Dispatchers.Default. Bounded to two
+ * low-priority threads that time out when the lists are idle, so a large diff
+ * never competes with the UI thread for a core.
+ */
+public final class DiffExecutors {
+    private static final int MAX_THREADS = 2;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+            30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            r -> new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                r.run();
+            }, "list-differ-" + threadCount.incrementAndGet()));
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /** Worker dispatcher for PagingDataAdapter. */
+    public static final CoroutineDispatcher WORKER = ExecutorsKt.from(EXECUTOR);
+
+    private DiffExecutors() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.shejan.nextdo;
+
+import android.os.Looper;
+import android.util.Log;
+
+/**
+ * Runs startup work that doesn't have to happen before the first frame once
+ * the main thread has nothing else to do, instead of on the launch path.
+ */
+final class IdleInitializer {
+    private static final String TAG = "IdleInitializer";
+
+    private IdleInitializer() {
+    }
+
+    /** Runs {@code task} on the main thread the next time its queue goes idle. */
+    static void runWhenIdle(String name, Runnable task) {
+        Looper.getMainLooper().getQueue().addIdleHandler(() -> {
+            StartupTrace.begin(StartupTrace.IDLE_PREFIX + name);
+            try {
+                task.run();
+            } catch (Exception e) {
+                Log.e(TAG, "Deferred init '" + name + "' failed: " + e.getMessage(), e);
+            } finally {
+                StartupTrace.end();
+            }
+            return false;
+        });
+    }
+}
@@ -24,6 +24,7 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.ItemTouchHelper;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -36,6 +37,8 @@ import androidx.core.view.WindowCompat;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
+import kotlin.Unit;
+
 public class MainActivity extends AppCompatActivity implements TaskListAdapter.OnTaskInteractionListener {
     private static final String TAG = "MainActivity";
 
@@ -44,6 +47,30 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
     private AlarmScheduler alarmScheduler;
     private boolean shouldScrollToTop = false;
     private TaskListAdapter adapter;
+    // Swapped into the RecyclerView while a search is applied (after the debounce).
+    private TaskListAdapter searchAdapter;
+    private boolean searching;
+    // The search results for the applied terms have finished loading.
+    private boolean searchResultsLoaded;
+    // Non-null while tasks are being multi-selected.
+    private androidx.appcompat.view.ActionMode selectionMode;
+    // Pre-API-31 drawer backdrop; cached until the list, scroll position or
+    // background changes.
+    private final BlurEngine blurEngine = new BlurEngine();
+    // What applyBackground last put on screen, so onResume can skip re-applying it.
+    private String appliedBackgroundKey;
+    private boolean fullyDrawnReported;
+    // Main list ordered by due time with section headers (menu toggle).
+    private static final String PREF_TIMELINE = "sort_by_reminder";
+    // Overdue/today boundaries move with the clock; re-bucket on resume after this long.
+    private static final long TIMELINE_REFRESH_MS = 60 * 1000;
+    private boolean timelineMode;
+    private long timelineBucketedAt;
+    private TimelineHeaderDecoration timelineHeaders;
+    // From TaskStats; -1 until the first row arrives, then the empty state uses it
+    // instead of whatever pages happen to be loaded.
+    private int activeTaskCount = -1;
+    private androidx.lifecycle.LiveData<androidx.paging.PagingData<TaskListItem>> observedMainList;
 
     private final ActivityResultLauncher<String> requestPermissionLauncher = registerForActivityResult(
             new ActivityResultContracts.RequestPermission(), isGranted -> {
@@ -79,10 +106,12 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
                     if (id != 0) {
                         Log.d(TAG, "Updating task " + id + " with reminderTime=" + reminderTime);
 
-                        // Schedule alarm callback AFTER database update completes
+                        // Schedule alarm callback AFTER database update completes. Only the
+                        // edited fields are written; the stored row keeps its completion and
+                        // recurrence anchor.
                         final Task taskForCallback = task;
                         final long finalReminderTime = reminderTime;
-                        taskViewModel.update(task, () -> {
+                        taskViewModel.updateEdited(task, () -> {
                             Log.d(TAG, "Database update complete, scheduling alarm if needed");
                             if (finalReminderTime > 0 && taskForCallback.alarmId != 0) {
                                 Log.d(TAG, "Scheduling alarm for updated task");
@@ -116,40 +145,50 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
                         Toast.makeText(this, "Task can't be deleted", Toast.LENGTH_SHORT).show();
                         return;
                     }
-                    Task task = new Task();
-                    task.id = id;
-                    taskViewModel.delete(task);
+                    taskViewModel.delete(id);
                 }
             });
 
     @Override
     protected void onResume() {
         super.onResume();
+        StartupTrace.begin(StartupTrace.MAIN_RESUME);
         applyBackground();
+        blurEngine.invalidate();
 
         // Refresh accent color
         android.content.SharedPreferences prefs = androidx.preference.PreferenceManager
                 .getDefaultSharedPreferences(this);
 
-        // Check for expired completed tasks (15 days)
-        long fifteenDaysInMillis = 15L * 24 * 60 * 60 * 1000;
-        long threshold = System.currentTimeMillis() - fifteenDaysInMillis;
-        taskViewModel.deleteOldCompletedTasks(threshold);
         int accentColor = prefs.getInt("accent_color", 0xFF34C759);
 
         binding.fab.setBackgroundTintList(android.content.res.ColorStateList.valueOf(accentColor));
 
         if (adapter != null) {
-            // noinspection NotifyDataSetChanged
-            adapter.notifyDataSetChanged();
+            adapter.setAccentColor(accentColor);
+            searchAdapter.setAccentColor(accentColor);
+            if (timelineMode && System.currentTimeMillis() - timelineBucketedAt > TIMELINE_REFRESH_MS) {
+                timelineBucketedAt = System.currentTimeMillis();
+                adapter.refresh();
+            }
         }
+        StartupTrace.end();
+    }
+
+    @Override
+    protected void onDestroy() {
+        blurEngine.release();
+        super.onDestroy();
     }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTrace.begin(StartupTrace.MAIN_THEME);
         ThemeManager.applyTheme(this);
+        StartupTrace.end();
 
+        StartupTrace.begin(StartupTrace.MAIN_INFLATE);
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
@@ -165,6 +204,7 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
             }
             return WindowInsetsCompat.CONSUMED;
         });
+        StartupTrace.end();
 
         // Initialize AlarmScheduler
         alarmScheduler = new AlarmScheduler(this);
@@ -172,11 +212,20 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
 
         // Remove toolbar for Nothing theme
         // Remove toolbar for Nothing theme
+        StartupTrace.begin(StartupTrace.MAIN_DRAWER);
         setupDrawer();
         setupBlurEffect();
+        StartupTrace.end();
 
-        askNotificationPermission();
+        // The permission dialog pauses this activity; let the first frame and
+        // the first page of tasks land before asking.
+        IdleInitializer.runWhenIdle("notificationPermission", () -> {
+            if (!isFinishing() && !isDestroyed()) {
+                askNotificationPermission();
+            }
+        });
 
+        StartupTrace.begin(StartupTrace.MAIN_LIST);
         TaskViewModelFactory factory = new TaskViewModelFactory(getApplication());
         taskViewModel = new ViewModelProvider(this, factory).get(TaskViewModel.class);
 
@@ -184,23 +233,72 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
         binding.recyclerview.setAdapter(adapter);
         binding.recyclerview.setLayoutManager(new LinearLayoutManager(this));
 
-        taskViewModel.getActiveTasks().observe(this, tasks -> {
-            if (tasks != null) {
-                adapter.submitList(tasks, () -> {
-                    if (shouldScrollToTop) {
-                        binding.recyclerview.smoothScrollToPosition(0);
-                        shouldScrollToTop = false;
-                    }
-                });
-                if (tasks.isEmpty()) {
-                    binding.emptyView.setVisibility(View.VISIBLE);
-                    binding.recyclerview.setVisibility(View.GONE);
-                } else {
-                    binding.emptyView.setVisibility(View.GONE);
-                    binding.recyclerview.setVisibility(View.VISIBLE);
+        timelineMode = androidx.preference.PreferenceManager.getDefaultSharedPreferences(this)
+                .getBoolean(PREF_TIMELINE, false);
+        observeMainList();
+        adapter.addOnPagesUpdatedListener(() -> {
+            if (timelineMode) {
+                // A row's header depends on the row above it, which may not have changed.
+                binding.recyclerview.invalidateItemDecorations();
+            }
+            return Unit.INSTANCE;
+        });
+        taskViewModel.getStats().observe(this, stats -> {
+            activeTaskCount = stats.active;
+            updateEmptyView();
+            setDrawerBadge(R.id.nav_completed_tasks, stats.completed);
+            setDrawerBadge(R.id.nav_recycle_bin, stats.deleted);
+        });
+        adapter.addLoadStateListener(loadStates -> {
+            if (loadStates.getSource().getRefresh() instanceof LoadState.NotLoading) {
+                updateEmptyView();
+                if (!fullyDrawnReported) {
+                    // End of startup for StartupTimingMetric: the first page is on screen.
+                    fullyDrawnReported = true;
+                    reportFullyDrawn();
+                }
+            }
+            return Unit.INSTANCE;
+        });
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                blurEngine.invalidate();
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                blurEngine.invalidate();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                blurEngine.invalidate();
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                blurEngine.invalidate();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                blurEngine.invalidate();
+                // New tasks are inserted at the top (ORDER BY id DESC)
+                if (shouldScrollToTop && positionStart == 0) {
+                    binding.recyclerview.smoothScrollToPosition(0);
+                    shouldScrollToTop = false;
                 }
             }
         });
+        setupSearch();
+        binding.recyclerview.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                blurEngine.invalidate();
+            }
+        });
+        StartupTrace.end();
 
         // Start floating animation
         android.view.animation.Animation floatAnimation = android.view.animation.AnimationUtils.loadAnimation(this,
@@ -248,7 +346,16 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
                     public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                         int position = viewHolder.getBindingAdapterPosition();
                         if (position != RecyclerView.NO_POSITION) {
-                            Task task = adapter.getTaskAt(position);
+                            // Either the task list or the search results.
+                            TaskListAdapter swipedAdapter = (TaskListAdapter) viewHolder.getBindingAdapter();
+                            if (swipedAdapter == null) {
+                                return;
+                            }
+                            TaskListItem task = swipedAdapter.getTaskAt(position);
+                            if (task == null) {
+                                swipedAdapter.notifyItemChanged(position);
+                                return;
+                            }
 
                             // Vibration feedback
                             try {
@@ -293,10 +400,10 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
                                         .start();
                             } else if (direction == ItemTouchHelper.RIGHT) {
                                 // RIGHT SWIPE - Edit action
-                                final Task taskToEdit = task;
+                                final TaskListItem taskToEdit = task;
 
                                 // CRITICAL FIX: Reset the item immediately to prevent removal
-                                adapter.notifyItemChanged(position);
+                                swipedAdapter.notifyItemChanged(position);
 
                                 // Play bounce animation
                                 viewHolder.itemView.animate()
@@ -315,7 +422,7 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
 
                                 // Open edit screen after delay to ensure item is restored
                                 new android.os.Handler(android.os.Looper.getMainLooper())
-                                        .postDelayed(() -> onTaskClicked(taskToEdit), 100);
+                                        .postDelayed(() -> openEditor(taskToEdit), 100);
                             }
                         }
                     }
@@ -557,6 +664,73 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
         }
     }
 
+    private void setupSearch() {
+        searchAdapter = new TaskListAdapter(new TaskListAdapter.TaskDiff(), this);
+        // No query runs until there is something to search for.
+        taskViewModel.getSearchResultsPaged().observe(this,
+                pagingData -> searchAdapter.submit(getLifecycle(), pagingData));
+        searchAdapter.addLoadStateListener(loadStates -> {
+            searchResultsLoaded = loadStates.getSource().getRefresh() instanceof LoadState.NotLoading;
+            updateEmptyView();
+            return Unit.INSTANCE;
+        });
+        // The list switches when the debounced query is applied, not on every
+        // keystroke, so it never shows the previous results for new terms.
+        taskViewModel.getSearchQuery().observe(this, query -> {
+            searching = !query.isEmpty();
+            // Until the new terms' first page loads, the old count says nothing.
+            searchResultsLoaded = false;
+            RecyclerView.Adapter<?> target = searching ? searchAdapter : adapter;
+            if (binding.recyclerview.getAdapter() != target) {
+                if (selectionMode != null) {
+                    // The selection belongs to the list being swapped out.
+                    selectionMode.finish();
+                }
+                binding.recyclerview.setAdapter(target);
+                blurEngine.invalidate();
+            }
+            updateEmptyView();
+        });
+
+        binding.searchBox.addTextChangedListener(new android.text.TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(android.text.Editable s) {
+                taskViewModel.setSearchQuery(s.toString());
+            }
+        });
+    }
+
+    private boolean isSearching() {
+        return searching;
+    }
+
+    private void updateEmptyView() {
+        // "No tasks yet" only describes the unfiltered list.
+        int count = activeTaskCount >= 0 ? activeTaskCount : adapter.getItemCount();
+        boolean isEmpty = !isSearching() && count == 0;
+        boolean noMatches = isSearching() && searchResultsLoaded && searchAdapter.getItemCount() == 0;
+        binding.emptyView.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
+        binding.searchEmptyView.setVisibility(noMatches ? View.VISIBLE : View.GONE);
+        binding.recyclerview.setVisibility(isEmpty || noMatches ? View.GONE : View.VISIBLE);
+    }
+
+    private void setDrawerBadge(int itemId, int count) {
+        android.view.MenuItem item = binding.navView.getMenu().findItem(itemId);
+        View badge = item != null ? item.getActionView() : null;
+        if (badge instanceof android.widget.TextView) {
+            ((android.widget.TextView) badge).setText(count > 0 ? String.valueOf(count) : "");
+            badge.setVisibility(count > 0 ? View.VISIBLE : View.GONE);
+        }
+    }
+
     private void askNotificationPermission() {
         // This is only necessary for API level 33 and above.
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
@@ -568,6 +742,12 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
         }
     }
 
+    private void setBackgroundBitmap(View content, android.graphics.Bitmap bitmap, String key) {
+        content.setBackground(new android.graphics.drawable.BitmapDrawable(getResources(), bitmap));
+        appliedBackgroundKey = key;
+        blurEngine.invalidate();
+    }
+
     private void applyBackground() {
         android.content.SharedPreferences prefs = androidx.preference.PreferenceManager
                 .getDefaultSharedPreferences(this);
@@ -576,60 +756,86 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
         // Find the ConstraintLayout inside the DrawerLayout
         View content = binding.drawerLayout.getChildAt(0);
 
-        if ("custom".equals(background)) {
-            try {
-                java.io.File file = new java.io.File(getFilesDir(), "custom_background.jpg");
-                if (file.exists()) {
-                    android.graphics.Bitmap bitmap = android.graphics.BitmapFactory.decodeFile(file.getAbsolutePath());
-                    android.graphics.drawable.BitmapDrawable drawable = new android.graphics.drawable.BitmapDrawable(
-                            getResources(), bitmap);
-                    content.setBackground(drawable);
-                    return;
-                }
-            } catch (Exception e) {
-                // Fallback to default if loading fails
-            }
+        if (!BackgroundImageStore.isImage(this, background)) {
+            applyThemeBackground(content);
+            return;
         }
 
-        int drawableId;
-        switch (background) {
-            case "bg_night_cottage":
-                drawableId = R.drawable.bg_night_cottage;
-                break;
-            case "bg_urban_sketch":
-                drawableId = R.drawable.bg_urban_sketch;
-                break;
-            case "bg_mystic_tree":
-                drawableId = R.drawable.bg_mystic_tree;
-                break;
-            case "bg_dark_waves":
-                drawableId = R.drawable.bg_dark_waves;
-                break;
-            default:
-                drawableId = 0;
-                break;
+        // Keyed by background id (import version for custom images) and display size:
+        // resuming with the same wallpaper costs nothing, and a decode (off the UI
+        // thread) only happens when neither this screen nor the shared cache has it.
+        String key = BackgroundImageStore.cacheKey(this, background);
+        if (key.equals(appliedBackgroundKey)) {
+            return;
         }
-
-        if (drawableId != 0) {
-            content.setBackground(ContextCompat.getDrawable(this, drawableId));
-        } else {
-            // Default background (theme attribute)
-            android.util.TypedValue typedValue = new android.util.TypedValue();
-            getTheme().resolveAttribute(android.R.attr.windowBackground, typedValue, true);
-            if (typedValue.resourceId != 0) {
-                content.setBackgroundResource(typedValue.resourceId);
+        android.graphics.Bitmap cached = BackgroundImageStore.getCached(this, background);
+        if (cached != null) {
+            setBackgroundBitmap(content, cached, key);
+            return;
+        }
+        appliedBackgroundKey = key;
+        BackgroundImageStore.load(this, background, bitmap -> {
+            if (isDestroyed() || !key.equals(appliedBackgroundKey)) {
+                return;
+            }
+            if (bitmap != null) {
+                setBackgroundBitmap(content, bitmap, key);
             } else {
-                content.setBackgroundColor(typedValue.data);
+                // Fallback to default if loading fails
+                applyThemeBackground(content);
             }
+        });
+    }
+
+    private void applyThemeBackground(View content) {
+        if ("default".equals(appliedBackgroundKey)) {
+            return;
+        }
+        appliedBackgroundKey = "default";
+        blurEngine.invalidate();
+
+        // Default background (theme attribute)
+        android.util.TypedValue typedValue = new android.util.TypedValue();
+        getTheme().resolveAttribute(android.R.attr.windowBackground, typedValue, true);
+        if (typedValue.resourceId != 0) {
+            content.setBackgroundResource(typedValue.resourceId);
+        } else {
+            content.setBackgroundColor(typedValue.data);
         }
     }
 
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu);
+        menu.findItem(R.id.action_sort_timeline).setChecked(timelineMode);
         return true;
     }
 
+    /**
+     * Points the main adapter at the id-ordered list or the due-time timeline.
+     * Only the chosen stream is observed, so the other Pager never loads.
+     */
+    private void observeMainList() {
+        if (observedMainList != null) {
+            observedMainList.removeObservers(this);
+        }
+        if (timelineMode) {
+            if (timelineHeaders == null) {
+                timelineHeaders = new TimelineHeaderDecoration(this);
+                binding.recyclerview.addItemDecoration(timelineHeaders);
+            }
+            timelineBucketedAt = System.currentTimeMillis();
+            observedMainList = taskViewModel.getTimelinePaged();
+        } else {
+            if (timelineHeaders != null) {
+                binding.recyclerview.removeItemDecoration(timelineHeaders);
+                timelineHeaders = null;
+            }
+            observedMainList = taskViewModel.getActiveTasksPaged();
+        }
+        observedMainList.observe(this, pagingData -> adapter.submit(getLifecycle(), pagingData));
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int id = item.getItemId();
@@ -640,13 +846,22 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
             return true;
         }
 
+        if (id == R.id.action_sort_timeline) {
+            timelineMode = !item.isChecked();
+            item.setChecked(timelineMode);
+            androidx.preference.PreferenceManager.getDefaultSharedPreferences(this).edit()
+                    .putBoolean(PREF_TIMELINE, timelineMode).apply();
+            observeMainList();
+            shouldScrollToTop = true;
+            return true;
+        }
+
         return super.onOptionsItemSelected(item);
     }
 
     @Override
-    public void onTaskCompleted(Task task, boolean isCompleted) {
-        task.isCompleted = isCompleted;
-        taskViewModel.update(task);
+    public void onTaskCompleted(TaskListItem task, boolean isCompleted) {
+        taskViewModel.setCompleted(task, isCompleted);
 
         // Always cancel notification when task is marked as completed
         if (isCompleted) {
@@ -661,12 +876,21 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
     }
 
     @Override
-    public void onTaskClicked(Task task) {
+    public void onTaskClicked(TaskListItem task) {
+        if (selectionMode != null) {
+            toggleSelection(task);
+            return;
+        }
+        openEditor(task);
+    }
+
+    private void openEditor(TaskListItem task) {
         Intent intent = new Intent(MainActivity.this, NewTaskActivity.class);
         intent.putExtra(NewTaskActivity.EXTRA_ID, task.id);
         intent.putExtra(NewTaskActivity.EXTRA_ALARM_ID, task.alarmId);
         intent.putExtra(NewTaskActivity.EXTRA_TITLE, task.title);
-        intent.putExtra(NewTaskActivity.EXTRA_DESCRIPTION, task.description);
+        // No EXTRA_DESCRIPTION: list rows only hold a preview, so NewTaskActivity
+        // loads the full description itself.
         intent.putExtra(NewTaskActivity.EXTRA_PRIORITY, task.priority);
         intent.putExtra(NewTaskActivity.EXTRA_REMINDER_TIME, task.reminderTime);
         intent.putExtra(NewTaskActivity.EXTRA_REPEAT, task.repeat);
@@ -674,11 +898,89 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
     }
 
     @Override
-    public void onTaskLongClicked(Task task) {
+    public void onTaskLongClicked(TaskListItem task) {
+        if (selectionMode != null) {
+            toggleSelection(task);
+            return;
+        }
         showTaskContextMenu(task);
     }
 
-    private void showTaskContextMenu(Task task) {
+    private TaskListAdapter shownAdapter() {
+        return isSearching() ? searchAdapter : adapter;
+    }
+
+    private void toggleSelection(TaskListItem task) {
+        TaskListAdapter shown = shownAdapter();
+        TaskSelection selection = shown.getSelection();
+        selection.toggle(task);
+        shown.notifySelectionChanged();
+        if (selection.isEmpty()) {
+            if (selectionMode != null) {
+                selectionMode.finish();
+            }
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(getString(R.string.selected_count, selection.size()));
+        }
+    }
+
+    // Bulk actions for multi-select: one write and one alarm pass for the whole selection.
+    private final androidx.appcompat.view.ActionMode.Callback selectionCallback = new androidx.appcompat.view.ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(androidx.appcompat.view.ActionMode mode, Menu menu) {
+            getMenuInflater().inflate(R.menu.menu_task_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(androidx.appcompat.view.ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(androidx.appcompat.view.ActionMode mode, MenuItem item) {
+            java.util.List<TaskListItem> tasks = shownAdapter().getSelection().getTasks();
+            int id = item.getItemId();
+            if (id == R.id.action_complete_selected) {
+                taskViewModel.setCompletedAll(tasks, true);
+                androidx.core.app.NotificationManagerCompat notificationManager = androidx.core.app.NotificationManagerCompat
+                        .from(MainActivity.this);
+                for (TaskListItem task : tasks) {
+                    notificationManager.cancel(task.id);
+                }
+                Snackbar.make(binding.getRoot(), tasks.size() + " tasks completed", Snackbar.LENGTH_LONG)
+                        .setAction("Undo", v -> taskViewModel.setCompletedAll(tasks, false))
+                        .show();
+            } else if (id == R.id.action_delete_selected) {
+                taskViewModel.softDeleteAll(tasks);
+                Snackbar.make(binding.getRoot(), tasks.size() + " tasks moved to Recycle Bin", Snackbar.LENGTH_LONG)
+                        .setAction("Undo", v -> taskViewModel.restoreAll(tasks))
+                        .show();
+            } else {
+                return false;
+            }
+            mode.finish();
+            return true;
+        }
+
+        @Override
+        public void onDestroyActionMode(androidx.appcompat.view.ActionMode mode) {
+            selectionMode = null;
+            for (TaskListAdapter listAdapter : new TaskListAdapter[] { adapter, searchAdapter }) {
+                if (!listAdapter.getSelection().isEmpty()) {
+                    listAdapter.getSelection().clear();
+                    listAdapter.notifySelectionChanged();
+                }
+            }
+        }
+    };
+
+    private void showTaskContextMenu(TaskListItem task) {
         if (task == null)
             return;
 
@@ -694,15 +996,26 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
 
         customView.findViewById(R.id.edit_option).setOnClickListener(v -> {
             dialog.dismiss();
-            onTaskClicked(task);
+            openEditor(task);
+        });
+
+        customView.findViewById(R.id.select_option).setOnClickListener(v -> {
+            dialog.dismiss();
+            toggleSelection(task);
         });
 
         customView.findViewById(R.id.delete_option).setOnClickListener(v -> {
             dialog.dismiss();
-            taskViewModel.delete(task);
-            Snackbar.make(binding.getRoot(), "Task deleted", Snackbar.LENGTH_LONG)
-                    .setAction("Undo", view -> taskViewModel.insert(task))
-                    .show();
+            // Undo re-inserts the stored row: task is a list row with only a
+            // description preview.
+            taskViewModel.delete(task.id, stored -> {
+                if (isDestroyed()) {
+                    return;
+                }
+                Snackbar.make(binding.getRoot(), "Task deleted", Snackbar.LENGTH_LONG)
+                        .setAction("Undo", view -> taskViewModel.insert(stored))
+                        .show();
+            });
         });
 
         dialog.show();
@@ -739,6 +1052,8 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
                 blurOverlay.setImageBitmap(null); // Free memory
                 if (Build.VERSION.SDK_INT >= 31) {
                     blurOverlay.setRenderEffect(null);
+                } else {
+                    blurEngine.cancel();
                 }
             }
 
@@ -753,18 +1068,18 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
         View content = binding.drawerLayout.getChildAt(0);
         if (content.getWidth() > 0 && content.getHeight() > 0) {
             try {
-                android.graphics.Bitmap bitmap = android.graphics.Bitmap.createBitmap(
-                        content.getWidth(), content.getHeight(), android.graphics.Bitmap.Config.ARGB_8888);
-                android.graphics.Canvas canvas = new android.graphics.Canvas(bitmap);
-                content.draw(canvas);
-
                 if (Build.VERSION.SDK_INT >= 31) {
+                    android.graphics.Bitmap bitmap = android.graphics.Bitmap.createBitmap(
+                            content.getWidth(), content.getHeight(), android.graphics.Bitmap.Config.ARGB_8888);
+                    android.graphics.Canvas canvas = new android.graphics.Canvas(bitmap);
+                    content.draw(canvas);
+
                     blurOverlay.setImageBitmap(bitmap);
                     blurOverlay.setRenderEffect(RenderEffect.createBlurEffect(50f, 50f, Shader.TileMode.MIRROR));
                 } else {
-                    // Apply blur
-                    android.graphics.Bitmap blurred = applyBlur(bitmap);
-                    blurOverlay.setImageBitmap(blurred);
+                    // Snapshot is taken here (before the overlay becomes visible);
+                    // the blur itself runs off the UI thread and fades in with the drawer.
+                    blurEngine.request(content, blurOverlay::setImageBitmap);
                 }
 
                 blurOverlay.setVisibility(View.VISIBLE);
@@ -774,215 +1089,4 @@ public class MainActivity extends AppCompatActivity implements TaskListAdapter.O
             }
         }
     }
-
-    private android.graphics.Bitmap applyBlur(android.graphics.Bitmap image) {
-        // Scale down for performance and "free" blur
-        float scale = 0.2f; // 1/5th size
-        int width = Math.round(image.getWidth() * scale);
-        int height = Math.round(image.getHeight() * scale);
-
-        if (width <= 0 || height <= 0)
-            return image;
-
-        android.graphics.Bitmap inputBitmap = android.graphics.Bitmap.createScaledBitmap(image, width, height, false);
-        android.graphics.Bitmap outputBitmap = android.graphics.Bitmap.createBitmap(inputBitmap);
-
-        // Fast blur algorithm (StackBlur variant simplified)
-        return fastBlur(outputBitmap); // Increased radius for stronger blur
-    }
-
-    // Fast blur algorithm
-    private android.graphics.Bitmap fastBlur(android.graphics.Bitmap sentBitmap) {
-        final int radius = 20;
-        android.graphics.Bitmap bitmap = sentBitmap.copy(sentBitmap.getConfig(), true);
-
-        int w = bitmap.getWidth();
-        int h = bitmap.getHeight();
-
-        int[] pix = new int[w * h];
-        bitmap.getPixels(pix, 0, w, 0, 0, w, h);
-
-        int wm = w - 1;
-        int hm = h - 1;
-        int wh = w * h;
-        int div = radius + radius + 1;
-
-        int[] r = new int[wh];
-        int[] g = new int[wh];
-        int[] b = new int[wh];
-        int rsum, gsum, bsum, x, y, i, p, yp, yi, yw;
-        int[] vmin = new int[Math.max(w, h)];
-
-        int divsum = (div + 1) >> 1;
-        divsum *= divsum;
-        int[] dv = new int[256 * divsum];
-        for (i = 0; i < 256 * divsum; i++) {
-            dv[i] = (i / divsum);
-        }
-
-        yw = yi = 0;
-
-        int[][] stack = new int[div][3];
-        int stackpointer;
-        int stackstart;
-        int[] sir;
-        int rbs;
-        int r1 = radius + 1;
-        int routsum, goutsum, boutsum;
-        int rinsum, ginsum, binsum;
-
-        for (y = 0; y < h; y++) {
-            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
-            for (i = -radius; i <= radius; i++) {
-                p = pix[yi + Math.min(wm, Math.max(i, 0))];
-                sir = stack[i + radius];
-                sir[0] = (p & 0xff0000) >> 16;
-                sir[1] = (p & 0x00ff00) >> 8;
-                sir[2] = (p & 0x0000ff);
-                rbs = r1 - Math.abs(i);
-                rsum += sir[0] * rbs;
-                gsum += sir[1] * rbs;
-                bsum += sir[2] * rbs;
-                if (i > 0) {
-                    rinsum += sir[0];
-                    ginsum += sir[1];
-                    binsum += sir[2];
-                } else {
-                    routsum += sir[0];
-                    goutsum += sir[1];
-                    boutsum += sir[2];
-                }
-            }
-            stackpointer = radius;
-
-            for (x = 0; x < w; x++) {
-
-                r[yi] = dv[rsum];
-                g[yi] = dv[gsum];
-                b[yi] = dv[bsum];
-
-                rsum -= routsum;
-                gsum -= goutsum;
-                bsum -= boutsum;
-
-                stackstart = stackpointer - radius + div;
-                sir = stack[stackstart % div];
-
-                routsum -= sir[0];
-                goutsum -= sir[1];
-                boutsum -= sir[2];
-
-                if (y == 0) {
-                    vmin[x] = Math.min(x + radius + 1, wm);
-                }
-                p = pix[yw + vmin[x]];
-
-                sir[0] = (p & 0xff0000) >> 16;
-                sir[1] = (p & 0x00ff00) >> 8;
-                sir[2] = (p & 0x0000ff);
-
-                rinsum += sir[0];
-                ginsum += sir[1];
-                binsum += sir[2];
-
-                rsum += rinsum;
-                gsum += ginsum;
-                bsum += binsum;
-
-                stackpointer = (stackpointer + 1) % div;
-                sir = stack[(stackpointer) % div];
-
-                routsum += sir[0];
-                goutsum += sir[1];
-                boutsum += sir[2];
-
-                rinsum -= sir[0];
-                ginsum -= sir[1];
-                binsum -= sir[2];
-
-                yi++;
-            }
-            yw += w;
-        }
-        for (x = 0; x < w; x++) {
-            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
-            yp = -radius * w;
-            for (i = -radius; i <= radius; i++) {
-                yi = Math.max(0, yp) + x;
-
-                sir = stack[i + radius];
-
-                rbs = r1 - Math.abs(i);
-
-                rsum += r[yi] * rbs;
-                gsum += g[yi] * rbs;
-                bsum += b[yi] * rbs;
-
-                if (i > 0) {
-                    rinsum += sir[0];
-                    ginsum += sir[1];
-                    binsum += sir[2];
-                } else {
-                    routsum += sir[0];
-                    goutsum += sir[1];
-                    boutsum += sir[2];
-                }
-
-                if (i < hm) {
-                    yp += w;
-                }
-            }
-            yi = x;
-            stackpointer = radius;
-            for (y = 0; y < h; y++) {
-                // Preserve alpha channel: ( 0xff000000 & pix[yi] )
-                pix[yi] = (0xff000000 & pix[yi]) | (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
-
-                rsum -= routsum;
-                gsum -= goutsum;
-                bsum -= boutsum;
-
-                stackstart = stackpointer - radius + div;
-                sir = stack[stackstart % div];
-
-                routsum -= sir[0];
-                goutsum -= sir[1];
-                boutsum -= sir[2];
-
-                if (x == 0) {
-                    vmin[y] = Math.min(y + r1, hm) * w;
-                }
-                p = x + vmin[y];
-
-                sir[0] = r[p];
-                sir[1] = g[p];
-                sir[2] = b[p];
-
-                rinsum += sir[0];
-                ginsum += sir[1];
-                binsum += sir[2];
-
-                rsum += rinsum;
-                gsum += ginsum;
-                bsum += binsum;
-
-                stackpointer = (stackpointer + 1) % div;
-                sir = stack[stackpointer];
-
-                routsum += sir[0];
-                goutsum += sir[1];
-                boutsum += sir[2];
-
-                rinsum -= sir[0];
-                ginsum -= sir[1];
-                binsum -= sir[2];
-
-                yi += w;
-            }
-        }
-
-        bitmap.setPixels(pix, 0, w, 0, 0, w, h);
-
-        return (bitmap);
-    }
 }
@@ -28,12 +28,14 @@ public class NewTaskActivity extends AppCompatActivity {
     public static final String EXTRA_REMINDER_TIME = "com.shejan.nextdo.REMINDER_TIME";
     public static final String EXTRA_REPEAT = "com.shejan.nextdo.REPEAT";
     public static final int RESULT_DELETE = 2;
+    private static final String STATE_DESCRIPTION_LOADED = "description_loaded";
 
     private ActivityNewTaskBinding binding;
     private final Calendar calendar = Calendar.getInstance();
     private int taskId = 0;
     private int alarmId = 0;
     private boolean isReminderSet = false;
+    private boolean descriptionLoaded = true;
     private AlarmScheduler alarmScheduler;
 
     @Override
@@ -65,7 +67,13 @@ public class NewTaskActivity extends AppCompatActivity {
             String description = intent.getStringExtra(EXTRA_DESCRIPTION);
 
             binding.editTitle.setText(title != null ? title : "");
-            binding.editDescription.setText(description != null ? description : "");
+            if (description != null) {
+                binding.editDescription.setText(description);
+            } else if (savedInstanceState == null
+                    || !savedInstanceState.getBoolean(STATE_DESCRIPTION_LOADED, false)) {
+                // Opened from a list row, which only holds a preview.
+                loadFullDescription(taskId);
+            }
 
             String priority = intent.getStringExtra(EXTRA_PRIORITY);
             if (priority != null) {
@@ -144,6 +152,43 @@ public class NewTaskActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Loads the stored description for {@code id} off the main thread. Saving is
+     * disabled until it arrives so a half-loaded form can't overwrite it.
+     */
+    private void loadFullDescription(int id) {
+        descriptionLoaded = false;
+        binding.editDescription.setEnabled(false);
+        binding.buttonSave.setEnabled(false);
+        android.content.Context appContext = getApplicationContext();
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            Task task = null;
+            try {
+                task = AppDatabase.getDatabase(appContext).taskDao().getTaskById(id);
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to load task " + id + ": " + e.getMessage(), e);
+            }
+            final Task loaded = task;
+            runOnUiThread(() -> {
+                if (isDestroyed()) {
+                    return;
+                }
+                if (loaded != null && loaded.description != null) {
+                    binding.editDescription.setText(loaded.description);
+                }
+                descriptionLoaded = true;
+                binding.editDescription.setEnabled(true);
+                binding.buttonSave.setEnabled(true);
+            });
+        });
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putBoolean(STATE_DESCRIPTION_LOADED, descriptionLoaded);
+    }
+
     private void showPriorityOptions() {
         applyBlurEffect(true);
         android.widget.ListPopupWindow listPopupWindow = new android.widget.ListPopupWindow(this);
@@ -4,13 +4,32 @@ import android.app.Application;
 
 public class NextDOApplication extends Application {
 
+    private final BackgroundCache backgroundCache = BackgroundCache.createDefault();
+
     @Override
     public void onCreate() {
+        StartupTrace.begin(StartupTrace.APP_ON_CREATE);
         super.onCreate();
-        try {
-            NotificationHelper.createNotificationChannel(this);
-        } catch (Exception e) {
-            // Continue app startup even if notification channel creation fails
-        }
+        // Not needed for the first frame; anything that posts a notification
+        // before this runs creates the channel itself.
+        IdleInitializer.runWhenIdle("notificationChannel", () -> {
+            try {
+                NotificationHelper.ensureNotificationChannel(this);
+            } catch (Exception e) {
+                // Continue app startup even if notification channel creation fails
+            }
+        });
+        IdleInitializer.runWhenIdle("purgeWorker", () -> PurgeWorker.schedule(this));
+        StartupTrace.end();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        backgroundCache.onTrimMemory(level);
+    }
+
+    public BackgroundCache getBackgroundCache() {
+        return backgroundCache;
     }
 }
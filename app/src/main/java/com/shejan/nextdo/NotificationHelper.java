@@ -12,6 +12,15 @@ public class NotificationHelper {
     private static final String TAG = "NotificationHelper";
     public static final String CHANNEL_ID = "nextdo_reminder_channel";
 
+    private static volatile boolean channelCreated;
+
+    /** Creates the channel once per process; cheap to call before every notification. */
+    public static void ensureNotificationChannel(Context context) {
+        if (!channelCreated) {
+            createNotificationChannel(context);
+        }
+    }
+
     public static void createNotificationChannel(Context context) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             NotificationChannel channel = getNotificationChannel();
@@ -20,8 +29,11 @@ public class NotificationHelper {
             NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
             if (notificationManager != null) {
                 notificationManager.createNotificationChannel(channel);
+                channelCreated = true;
                 Log.d(TAG, "Notification channel created successfully");
             }
+        } else {
+            channelCreated = true;
         }
     }
 
@@ -0,0 +1,148 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Daily retention job: permanently deletes recycle-bin tasks after 30 days and
+ * completed tasks after 15. Replaces the purges that used to run on every
+ * onResume of MainActivity and RecycleBinActivity.
+ *
+ * Each kind is skipped with a single MIN() lookup when its oldest row hasn't
+ * expired. Otherwise rows are deleted {@link #CHUNK_SIZE} at a time through
+ * TaskWriteQueue, so user edits interleave with the purge instead of waiting
+ * behind one long transaction. A delete that fails fails the run, which
+ * WorkManager retries with backoff.
+ */
+public class PurgeWorker extends Worker {
+    private static final String TAG = "PurgeWorker";
+    static final String UNIQUE_NAME = "task-purge";
+    static final long RECYCLE_BIN_RETENTION_MS = 30L * 24 * 60 * 60 * 1000;
+    static final long COMPLETED_RETENTION_MS = 15L * 24 * 60 * 60 * 1000;
+    static final int CHUNK_SIZE = 200;
+    static final String PREF_LAST_RUN = "purge_last_run";
+    static final String PREF_LAST_PURGED = "purge_last_purged";
+
+    /** One bounded delete; returns the number of rows it removed. */
+    interface Chunk {
+        int delete(int limit);
+    }
+
+    private final AppDatabase database;
+    private final TaskWriteQueue writeQueue;
+
+    public PurgeWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        this(context, params, AppDatabase.getDatabase(context.getApplicationContext()),
+                TaskWriteQueue.getInstance(context));
+    }
+
+    // Tests run the worker against an in-memory database and a queue of its own.
+    PurgeWorker(@NonNull Context context, @NonNull WorkerParameters params, AppDatabase database,
+            TaskWriteQueue writeQueue) {
+        super(context, params);
+        this.database = database;
+        this.writeQueue = writeQueue;
+    }
+
+    /** Enqueues the daily purge unless it is already scheduled. */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(PurgeWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context.getApplicationContext())
+                .enqueueUniquePeriodicWork(UNIQUE_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        TaskDao taskDao = database.taskDao();
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        try {
+            long deletedThreshold = now - RECYCLE_BIN_RETENTION_MS;
+            if (hasExpired(taskDao.getOldestDeletedTimestamp(), deletedThreshold)) {
+                purged += deleteInChunks(limit -> runOnWriter(writeQueue,
+                        dao -> dao.deleteOldTasks(deletedThreshold, limit)), CHUNK_SIZE, this::isStopped);
+            }
+            long completedThreshold = now - COMPLETED_RETENTION_MS;
+            if (hasExpired(taskDao.getOldestCompletedTimestamp(), completedThreshold)) {
+                purged += deleteInChunks(limit -> runOnWriter(writeQueue,
+                        dao -> dao.deleteOldCompletedTasks(completedThreshold, limit)), CHUNK_SIZE,
+                        this::isStopped);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Purge failed: " + e.getMessage(), e);
+            return Result.retry();
+        }
+
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putLong(PREF_LAST_RUN, now)
+                .putInt(PREF_LAST_PURGED, purged)
+                .apply();
+        Log.d(TAG, "Purged " + purged + " expired tasks");
+        return Result.success();
+    }
+
+    static boolean hasExpired(Long oldestTimestamp, long threshold) {
+        return oldestTimestamp != null && oldestTimestamp < threshold;
+    }
+
+    /**
+     * Runs {@code chunk} until it deletes fewer than {@code chunkSize} rows or
+     * the work is stopped. Returns the total deleted.
+     */
+    static int deleteInChunks(Chunk chunk, int chunkSize, BooleanSupplier stopped) {
+        int total = 0;
+        while (!stopped.getAsBoolean()) {
+            int deleted = chunk.delete(chunkSize);
+            total += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Blocks this worker thread until the writer has applied the delete. A
+    // failed delete is thrown, so doWork() retries instead of reporting success.
+    private static int runOnWriter(TaskWriteQueue writeQueue, ToIntFunction<TaskDao> delete) {
+        final int[] deleted = { 0 };
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        // Recycle-bin and completed rows are never on the upcoming widget.
+        writeQueue.execute(dao -> deleted[0] = delete.applyAsInt(dao), false, done::countDown, e -> {
+            failure.set(e);
+            done.countDown();
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a purge delete", e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Purge delete failed", failure.get());
+        }
+        return deleted[0];
+    }
+}
@@ -0,0 +1,227 @@
+package com.shejan.nextdo;
+
+import java.util.TimeZone;
+
+/**
+ * Compact form of {@link Task#repeat} plus the arithmetic to expand it.
+ *
+ * Occurrences are always computed from the series anchor (the first reminder),
+ * so a "Monthly" task created on Jan 31 lands on Feb 28/29, Mar 31, Apr 30 ...
+ * instead of drifting to the 28th. Local wall-clock time is preserved across DST
+ * changes. All math is done on epoch days, so no Calendar is allocated per call;
+ * callers pass in (and should reuse) the TimeZone.
+ */
+public final class RecurrenceRule {
+    public static final int FREQ_NONE = 0;
+    public static final int FREQ_DAILY = 1;
+    public static final int FREQ_WEEKLY = 2;
+    public static final int FREQ_MONTHLY = 3;
+    public static final int FREQ_YEARLY = 4;
+
+    /** Returned by {@link #nextOccurrence} when the series has no further occurrence. */
+    public static final long NO_OCCURRENCE = 0;
+
+    public static final RecurrenceRule NONE = new RecurrenceRule(FREQ_NONE, 1);
+    private static final RecurrenceRule DAILY = new RecurrenceRule(FREQ_DAILY, 1);
+    private static final RecurrenceRule WEEKLY = new RecurrenceRule(FREQ_WEEKLY, 1);
+    private static final RecurrenceRule MONTHLY = new RecurrenceRule(FREQ_MONTHLY, 1);
+    private static final RecurrenceRule YEARLY = new RecurrenceRule(FREQ_YEARLY, 1);
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final int frequency;
+    private final int interval;
+
+    private RecurrenceRule(int frequency, int interval) {
+        this.frequency = frequency;
+        this.interval = interval;
+    }
+
+    /**
+     * Maps the values offered by R.array.repeat_array ("NONE", "Daily", "Weekly",
+     * "Monthly", "Yearly") to a shared rule instance. Anything else is NONE.
+     */
+    public static RecurrenceRule parse(String repeat) {
+        if (repeat == null) {
+            return NONE;
+        }
+        if ("Daily".equalsIgnoreCase(repeat)) {
+            return DAILY;
+        } else if ("Weekly".equalsIgnoreCase(repeat)) {
+            return WEEKLY;
+        } else if ("Monthly".equalsIgnoreCase(repeat)) {
+            return MONTHLY;
+        } else if ("Yearly".equalsIgnoreCase(repeat)) {
+            return YEARLY;
+        }
+        return NONE;
+    }
+
+    public int getFrequency() {
+        return frequency;
+    }
+
+    public boolean isRecurring() {
+        return frequency != FREQ_NONE;
+    }
+
+    /** The n-th occurrence (n = 0 is the anchor itself) of the series. */
+    public long occurrence(long anchorMillis, long n, TimeZone zone) {
+        if (n == 0 || !isRecurring()) {
+            return anchorMillis;
+        }
+        long local = anchorMillis + zone.getOffset(anchorMillis);
+        long anchorDay = Math.floorDiv(local, DAY_MS);
+        long timeOfDay = local - anchorDay * DAY_MS;
+
+        long day;
+        switch (frequency) {
+            case FREQ_DAILY:
+                day = anchorDay + n * interval;
+                break;
+            case FREQ_WEEKLY:
+                day = anchorDay + 7 * n * interval;
+                break;
+            case FREQ_MONTHLY: {
+                long civil = civilFromDays(anchorDay);
+                long months = yearOf(civil) * 12 + (monthOf(civil) - 1) + n * interval;
+                long year = Math.floorDiv(months, 12L);
+                int month = (int) Math.floorMod(months, 12L) + 1;
+                int dayOfMonth = Math.min(dayOf(civil), lengthOfMonth(year, month));
+                day = daysFromCivil(year, month, dayOfMonth);
+                break;
+            }
+            case FREQ_YEARLY: {
+                long civil = civilFromDays(anchorDay);
+                long year = yearOf(civil) + n * interval;
+                int month = monthOf(civil);
+                int dayOfMonth = Math.min(dayOf(civil), lengthOfMonth(year, month));
+                day = daysFromCivil(year, month, dayOfMonth);
+                break;
+            }
+            default:
+                return anchorMillis;
+        }
+        return localToUtc(day * DAY_MS + timeOfDay, zone);
+    }
+
+    /**
+     * First occurrence strictly after {@code afterMillis}, or {@link #NO_OCCURRENCE}
+     * for a non-repeating rule whose anchor has already passed. O(1) regardless of
+     * how far {@code afterMillis} is from the anchor.
+     */
+    public long nextOccurrence(long anchorMillis, long afterMillis, TimeZone zone) {
+        if (anchorMillis > afterMillis) {
+            return anchorMillis;
+        }
+        if (!isRecurring()) {
+            return NO_OCCURRENCE;
+        }
+        return occurrence(anchorMillis, firstIndexAfter(anchorMillis, afterMillis, zone), zone);
+    }
+
+    // Smallest n >= 1 with occurrence(n) > afterMillis. Starts one step below an
+    // arithmetic estimate so DST and month-length clamping can't make it overshoot.
+    private long firstIndexAfter(long anchorMillis, long afterMillis, TimeZone zone) {
+        long anchorDay = Math.floorDiv(anchorMillis + zone.getOffset(anchorMillis), DAY_MS);
+        long afterDay = Math.floorDiv(afterMillis + zone.getOffset(afterMillis), DAY_MS);
+
+        long estimate;
+        switch (frequency) {
+            case FREQ_DAILY:
+                estimate = (afterDay - anchorDay) / interval;
+                break;
+            case FREQ_WEEKLY:
+                estimate = (afterDay - anchorDay) / (7L * interval);
+                break;
+            case FREQ_MONTHLY: {
+                long anchorCivil = civilFromDays(anchorDay);
+                long afterCivil = civilFromDays(afterDay);
+                long months = (yearOf(afterCivil) * 12 + monthOf(afterCivil))
+                        - (yearOf(anchorCivil) * 12 + monthOf(anchorCivil));
+                estimate = months / interval;
+                break;
+            }
+            case FREQ_YEARLY:
+                estimate = (yearOf(civilFromDays(afterDay)) - yearOf(civilFromDays(anchorDay))) / interval;
+                break;
+            default:
+                estimate = 1;
+                break;
+        }
+
+        long n = Math.max(1, estimate - 1);
+        while (occurrence(anchorMillis, n, zone) <= afterMillis) {
+            n++;
+        }
+        return n;
+    }
+
+    // Resolves a local wall-clock instant to UTC. Times inside a DST gap are
+    // shifted forward by the gap (02:30 on a spring-forward day becomes 03:30),
+    // matching lenient java.util.Calendar.
+    private static long localToUtc(long localMillis, TimeZone zone) {
+        int firstGuess = zone.getOffset(localMillis - zone.getRawOffset());
+        long utc = localMillis - firstGuess;
+        int actual = zone.getOffset(utc);
+        if (actual != firstGuess) {
+            utc = localMillis - actual;
+        }
+        return utc;
+    }
+
+    // Civil dates are packed as (year << 9) | (month << 5) | day to avoid
+    // returning an object. Algorithms from H. Hinnant, "chrono-Compatible
+    // Low-Level Date Algorithms".
+    static long civilFromDays(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long d = doy - (153 * mp + 2) / 5 + 1;
+        long m = mp < 10 ? mp + 3 : mp - 9;
+        long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        return (y << 9) | (m << 5) | d;
+    }
+
+    static long daysFromCivil(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400L);
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static long yearOf(long civil) {
+        return civil >> 9;
+    }
+
+    private static int monthOf(long civil) {
+        return (int) ((civil >> 5) & 0xF);
+    }
+
+    private static int dayOf(long civil) {
+        return (int) (civil & 0x1F);
+    }
+
+    static boolean isLeapYear(long year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -6,11 +6,14 @@ import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.google.android.material.snackbar.Snackbar;
 import com.shejan.nextdo.databinding.ActivityRecycleBinBinding;
 
+import kotlin.Unit;
+
 public class RecycleBinActivity extends AppCompatActivity {
 
     private ActivityRecycleBinBinding binding;
@@ -18,6 +21,8 @@ public class RecycleBinActivity extends AppCompatActivity {
     private RecycleBinAdapter adapter;
 
     private android.view.MenuItem deleteAllItem;
+    // Non-null while tasks are being multi-selected.
+    private androidx.appcompat.view.ActionMode selectionMode;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -67,53 +72,43 @@ public class RecycleBinActivity extends AppCompatActivity {
         adapter = new RecycleBinAdapter(new RecycleBinAdapter.TaskDiff(),
                 new RecycleBinAdapter.OnTaskActionListener() {
                     @Override
-                    public void onRestore(Task task) {
+                    public void onRestore(TaskListItem task) {
                         taskViewModel.restore(task);
                         Snackbar.make(binding.getRoot(), "Task restored", Snackbar.LENGTH_SHORT).show();
                     }
 
                     @Override
-                    public void onDelete(Task task) {
+                    public void onDelete(TaskListItem task) {
                         taskViewModel.deletePermanently(task);
                         Snackbar.make(binding.getRoot(), "Task deleted permanently", Snackbar.LENGTH_SHORT).show();
                     }
+
+                    @Override
+                    public void onToggleSelection(TaskListItem task) {
+                        toggleSelection(task);
+                    }
                 });
         binding.recyclerviewRecycleBin.setAdapter(adapter);
         binding.recyclerviewRecycleBin.setLayoutManager(new LinearLayoutManager(this));
 
         // Observe deleted tasks
-        taskViewModel.getDeletedTasks().observe(this, tasks -> {
-            adapter.submitList(tasks);
-            boolean isEmpty = tasks.isEmpty();
-            if (isEmpty) {
-                binding.emptyView.setVisibility(View.VISIBLE);
-                binding.recyclerviewRecycleBin.setVisibility(View.GONE);
-            } else {
-                binding.emptyView.setVisibility(View.GONE);
-                binding.recyclerviewRecycleBin.setVisibility(View.VISIBLE);
-            }
-
-            // Update menu item state
-            if (deleteAllItem != null) {
-                deleteAllItem.setEnabled(!isEmpty);
-
-                CharSequence itemTitle = deleteAllItem.getTitle();
-                if (itemTitle == null)
-                    return;
-                String title = itemTitle.toString();
-                android.text.SpannableString s = new android.text.SpannableString(title);
-
+        taskViewModel.getDeletedTasksPaged().observe(this,
+                pagingData -> adapter.submit(getLifecycle(), pagingData));
+        adapter.addLoadStateListener(loadStates -> {
+            if (loadStates.getSource().getRefresh() instanceof LoadState.NotLoading) {
+                boolean isEmpty = adapter.getItemCount() == 0;
                 if (isEmpty) {
-                    // Gray out
-                    s.setSpan(new android.text.style.ForegroundColorSpan(android.graphics.Color.GRAY), 0, s.length(),
-                            0);
+                    binding.emptyView.setVisibility(View.VISIBLE);
+                    binding.recyclerviewRecycleBin.setVisibility(View.GONE);
                 } else {
-                    // Red for danger
-                    s.setSpan(new android.text.style.ForegroundColorSpan(android.graphics.Color.parseColor("#EF5350")),
-                            0, s.length(), 0);
+                    binding.emptyView.setVisibility(View.GONE);
+                    binding.recyclerviewRecycleBin.setVisibility(View.VISIBLE);
                 }
-                deleteAllItem.setTitle(s);
+
+                // Update menu item state
+                updateDeleteAllItem(isEmpty);
             }
+            return Unit.INSTANCE;
         });
     }
 
@@ -123,24 +118,31 @@ public class RecycleBinActivity extends AppCompatActivity {
         deleteAllItem = menu.findItem(R.id.action_delete_all);
 
         // Initial state check if data is already loaded
-        boolean isEmpty = adapter.getCurrentList().isEmpty();
+        updateDeleteAllItem(adapter.getItemCount() == 0);
+
+        return true;
+    }
+
+    private void updateDeleteAllItem(boolean isEmpty) {
+        if (deleteAllItem == null)
+            return;
         deleteAllItem.setEnabled(!isEmpty);
 
         CharSequence itemTitle = deleteAllItem.getTitle();
         if (itemTitle == null)
-            return true;
+            return;
         String title = itemTitle.toString();
         android.text.SpannableString s = new android.text.SpannableString(title);
 
         if (isEmpty) {
+            // Gray out
             s.setSpan(new android.text.style.ForegroundColorSpan(android.graphics.Color.GRAY), 0, s.length(), 0);
         } else {
+            // Red for danger
             s.setSpan(new android.text.style.ForegroundColorSpan(android.graphics.Color.parseColor("#EF5350")), 0,
                     s.length(), 0);
         }
         deleteAllItem.setTitle(s);
-
-        return true;
     }
 
     @Override
@@ -152,6 +154,63 @@ public class RecycleBinActivity extends AppCompatActivity {
         return super.onOptionsItemSelected(item);
     }
 
+    private void toggleSelection(TaskListItem task) {
+        TaskSelection selection = adapter.getSelection();
+        selection.toggle(task);
+        adapter.notifySelectionChanged();
+        if (selection.isEmpty()) {
+            if (selectionMode != null) {
+                selectionMode.finish();
+            }
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(getString(R.string.selected_count, selection.size()));
+        }
+    }
+
+    // Bulk restore/delete for the selected tasks, each as a single write.
+    private final androidx.appcompat.view.ActionMode.Callback selectionCallback = new androidx.appcompat.view.ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(androidx.appcompat.view.ActionMode mode, android.view.Menu menu) {
+            getMenuInflater().inflate(R.menu.menu_recycle_bin_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(androidx.appcompat.view.ActionMode mode, android.view.Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(androidx.appcompat.view.ActionMode mode, android.view.MenuItem item) {
+            java.util.List<TaskListItem> tasks = adapter.getSelection().getTasks();
+            int id = item.getItemId();
+            if (id == R.id.action_restore_selected) {
+                taskViewModel.restoreAll(tasks);
+                Snackbar.make(binding.getRoot(), tasks.size() + " tasks restored", Snackbar.LENGTH_SHORT).show();
+            } else if (id == R.id.action_delete_selected) {
+                taskViewModel.deletePermanentlyAll(tasks);
+                Snackbar.make(binding.getRoot(), tasks.size() + " tasks deleted permanently", Snackbar.LENGTH_SHORT)
+                        .show();
+            } else {
+                return false;
+            }
+            mode.finish();
+            return true;
+        }
+
+        @Override
+        public void onDestroyActionMode(androidx.appcompat.view.ActionMode mode) {
+            selectionMode = null;
+            adapter.getSelection().clear();
+            adapter.notifySelectionChanged();
+        }
+    };
+
     private void showDeleteAllConfirmationDialog() {
         android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(this);
         View view = getLayoutInflater().inflate(R.layout.dialog_confirm_delete, null);
@@ -180,13 +239,4 @@ public class RecycleBinActivity extends AppCompatActivity {
         }
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        // Check for expired tasks (30 days)
-        long thirtyDaysInMillis = 30L * 24 * 60 * 60 * 1000;
-        long threshold = System.currentTimeMillis() - thirtyDaysInMillis;
-        taskViewModel.deleteOldTasks(threshold);
-    }
-
 }
@@ -9,25 +9,41 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-public class RecycleBinAdapter extends ListAdapter<Task, RecycleBinAdapter.TaskViewHolder> {
+public class RecycleBinAdapter extends TaskPagingDataAdapter<RecycleBinAdapter.TaskViewHolder> {
 
     private final OnTaskActionListener listener;
+    private final TaskSelection selection = new TaskSelection();
+    // Selected rows are tinted with the accent, resolved on first bind.
+    private android.content.res.ColorStateList selectionTint;
+    private static final int SELECTION_ALPHA = 96;
+    private static final Object SELECTION_ONLY = new Object();
 
     public interface OnTaskActionListener {
-        void onRestore(Task task);
+        void onRestore(TaskListItem task);
 
-        void onDelete(Task task);
+        void onDelete(TaskListItem task);
+
+        /** Long-press, or any tap while a selection is active. */
+        void onToggleSelection(TaskListItem task);
     }
 
-    public RecycleBinAdapter(@NonNull DiffUtil.ItemCallback<Task> diffCallback,
+    public RecycleBinAdapter(@NonNull DiffUtil.ItemCallback<TaskListItem> diffCallback,
             OnTaskActionListener listener) {
         super(diffCallback);
         this.listener = listener;
     }
 
+    public TaskSelection getSelection() {
+        return selection;
+    }
+
+    /** Call after changing {@link #getSelection()}; bound rows update their highlight only. */
+    public void notifySelectionChanged() {
+        notifyItemRangeChanged(0, getItemCount(), SELECTION_ONLY);
+    }
+
     @NonNull
     @Override
     public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -38,8 +54,37 @@ public class RecycleBinAdapter extends ListAdapter<Task, RecycleBinAdapter.TaskV
 
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        Task current = getItem(position);
-        holder.bind(current, listener);
+        TaskListItem current = getItem(position);
+        if (current != null) {
+            holder.bind(current, listener, selection);
+            holder.setSelected(selectionTintFor(holder, current));
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position,
+            @NonNull java.util.List<Object> payloads) {
+        if (payloads.size() != 1 || payloads.get(0) != SELECTION_ONLY) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        TaskListItem current = getItem(position);
+        if (current != null) {
+            holder.setSelected(selectionTintFor(holder, current));
+        }
+    }
+
+    private android.content.res.ColorStateList selectionTintFor(TaskViewHolder holder, TaskListItem task) {
+        if (!selection.contains(task.id)) {
+            return null;
+        }
+        if (selectionTint == null) {
+            int accent = androidx.preference.PreferenceManager
+                    .getDefaultSharedPreferences(holder.itemView.getContext())
+                    .getInt("accent_color", 0xFF34C759);
+            selectionTint = android.content.res.ColorStateList.valueOf(accent).withAlpha(SELECTION_ALPHA);
+        }
+        return selectionTint;
     }
 
     public static class TaskViewHolder extends RecyclerView.ViewHolder {
@@ -47,6 +92,7 @@ public class RecycleBinAdapter extends ListAdapter<Task, RecycleBinAdapter.TaskV
         private final TextView taskDescriptionView;
         private final View btnRestore;
         private final View btnDelete;
+        private android.content.res.ColorStateList appliedSelectionTint;
 
         public TaskViewHolder(View itemView) {
             super(itemView);
@@ -56,8 +102,15 @@ public class RecycleBinAdapter extends ListAdapter<Task, RecycleBinAdapter.TaskV
             btnDelete = itemView.findViewById(R.id.btn_delete);
         }
 
+        void setSelected(android.content.res.ColorStateList selectionTint) {
+            if (selectionTint != appliedSelectionTint) {
+                itemView.setBackgroundTintList(selectionTint);
+                appliedSelectionTint = selectionTint;
+            }
+        }
+
         // Revised bind method to accept listener
-        public void bind(Task task, OnTaskActionListener listener) {
+        public void bind(TaskListItem task, OnTaskActionListener listener, TaskSelection selection) {
             taskItemView.setText(task.title);
 
             java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("MMM dd, yyyy",
@@ -86,18 +139,29 @@ public class RecycleBinAdapter extends ListAdapter<Task, RecycleBinAdapter.TaskV
                 if (listener != null)
                     listener.onDelete(task);
             });
+
+            itemView.setOnLongClickListener(v -> {
+                if (listener != null)
+                    listener.onToggleSelection(task);
+                return true;
+            });
+
+            itemView.setOnClickListener(v -> {
+                if (listener != null && !selection.isEmpty())
+                    listener.onToggleSelection(task);
+            });
         }
     }
 
-    static class TaskDiff extends DiffUtil.ItemCallback<Task> {
+    static class TaskDiff extends DiffUtil.ItemCallback<TaskListItem> {
 
         @Override
-        public boolean areItemsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+        public boolean areItemsTheSame(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
             return oldItem.id == newItem.id;
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+        public boolean areContentsTheSame(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
             return oldItem.title.equals(newItem.title) &&
                     oldItem.description.equals(newItem.description) &&
                     oldItem.priority.equals(newItem.priority) &&
@@ -11,138 +11,244 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-task reminder alarm. onReceive only hands the alarm to ReminderDispatcher,
+ * which looks the task up, posts the notification and re-arms repeating tasks
+ * on its own thread within a fixed budget.
+ */
 public class ReminderBroadcastReceiver extends BroadcastReceiver {
     private static final String TAG = "ReminderBroadcastReceiver";
     public static final String EXTRA_TASK_TITLE = "task_title";
     public static final String EXTRA_TASK_ID = "task_id";
-    private static long lastNotificationTime = 0; // CRITICAL FIX: Prevent duplicate broadcasts
+    // Reminders posted in one batch share this group; a batch of two or more
+    // also gets a summary, and only the summary alerts.
+    static final String GROUP_KEY = "com.shejan.nextdo.REMINDERS";
+    // Task ids start at 1, so this never collides with a task's notification.
+    static final int SUMMARY_NOTIFICATION_ID = 0;
+    // AlarmScheduler fires near-future reminders up to 5 s early; anything within
+    // a minute of reminderTime is treated as the scheduled firing.
+    private static final long RECURRENCE_FIRE_WINDOW_MS = 60 * 1000;
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        try {
-            Log.d(TAG, "Alarm received for notification");
-
-            String taskTitle = intent.getStringExtra(EXTRA_TASK_TITLE);
-            String taskDescription = intent.getStringExtra("task_description");
-            int taskId = intent.getIntExtra(EXTRA_TASK_ID, 0);
-
-            // CRITICAL FIX: Prevent duplicate broadcasts within 1 second
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastNotificationTime < 1000) {
-                Log.d(TAG, "Duplicate broadcast detected within 1 second, ignoring");
-                return; // Ignore if called again within 1 second
-            }
-            lastNotificationTime = currentTime;
+        Log.d(TAG, "Alarm received for notification");
+        int taskId = intent.getIntExtra(EXTRA_TASK_ID, 0);
+        if (taskId == 0) {
+            Log.e(TAG, "Invalid taskId, aborting notification");
+            return;
+        }
+        ReminderDispatcher.Reminder reminder = new ReminderDispatcher.Reminder(taskId,
+                intent.getIntExtra("alarm_id", 0), intent.getStringExtra(EXTRA_TASK_TITLE),
+                intent.getStringExtra("task_description"));
+        ReminderDispatcher.getInstance(context).enqueue(reminder, goAsync());
+    }
 
-            if (taskId == 0) {
-                Log.e(TAG, "Invalid taskId, aborting notification");
-                return;
-            }
+    // CRITICAL FIX: Check if task is already completed before showing notification
+    static boolean isStillDue(Task task, int taskId) {
+        if (task == null) {
+            Log.d(TAG, "Task " + taskId + " no longer exists, not showing notification");
+            return false;
+        }
+        if (task.isCompleted || task.isDeleted) {
+            Log.d(TAG, "Task " + taskId + " is completed or deleted, not showing notification");
+            return false; // Don't show notification for completed tasks
+        }
+        return true;
+    }
 
-            // CRITICAL FIX: Check if task is already completed before showing notification
-            try {
-                AppDatabase db = AppDatabase.getDatabase(context);
-                java.util.List<Task> allTasks = db.taskDao().getAllTasksSync();
-                Task foundTask = null;
-                for (Task t : allTasks) {
-                    if (t.id == taskId) {
-                        foundTask = t;
-                        break;
-                    }
-                }
+    // Moves a repeating task on to its next occurrence and arms the alarm for it.
+    // A snoozed reminder fires long after reminderTime has already been advanced,
+    // so only a firing close to the stored reminderTime advances the series; a
+    // snooze firing just re-arms the (already advanced) next occurrence, which the
+    // snooze PendingIntent replaced.
+    static void rearmIfRecurring(Context context, Task task) {
+        RecurrenceRule rule = RecurrenceRule.parse(task.repeat);
+        if (!rule.isRecurring() || task.reminderTime <= 0 || task.alarmId == 0) {
+            return;
+        }
 
-                if (foundTask != null && foundTask.isCompleted) {
-                    Log.d(TAG, "Task " + taskId + " is already completed, not showing notification");
-                    return; // Don't show notification for completed tasks
-                }
-            } catch (Exception e) {
-                Log.w(TAG, "Could not check if task is completed: " + e.getMessage());
-                // Continue anyway - better to show notification than skip it
+        long now = System.currentTimeMillis();
+        if (task.reminderTime - now < RECURRENCE_FIRE_WINDOW_MS) {
+            long anchor = task.repeatAnchor != 0 ? task.repeatAnchor : task.reminderTime;
+            long next = rule.nextOccurrence(anchor, Math.max(now, task.reminderTime), TimeZone.getDefault());
+            if (next == RecurrenceRule.NO_OCCURRENCE) {
+                return;
             }
+            // Ordered with user edits through TaskWriteQueue, which also refreshes the
+            // widget. The alarm is armed only if the row was still at this occurrence;
+            // otherwise the edit that changed it has already scheduled its own.
+            int taskId = task.id;
+            long previous = task.reminderTime;
+            AtomicInteger advanced = new AtomicInteger();
+            task.repeatAnchor = anchor;
+            task.reminderTime = next;
+            TaskWriteQueue.getInstance(context).execute(
+                    dao -> advanced.set(dao.advanceRecurrence(taskId, previous, next, anchor)), true, () -> {
+                        if (advanced.get() == 0) {
+                            Log.d(TAG, "Task " + taskId + " changed before it could repeat, not re-arming");
+                            return;
+                        }
+                        Log.d(TAG, "Task " + taskId + " repeats " + task.repeat + ", next reminder at " + next);
+                        new AlarmScheduler(context).schedule(task);
+                    });
+            return;
+        }
+        new AlarmScheduler(context).schedule(task);
+    }
 
-            Log.d(TAG, "Showing notification for task " + taskId);
-
-            Intent mainIntent = new Intent(context, MainActivity.class);
-            mainIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-            PendingIntent pendingIntent = PendingIntent.getActivity(context, taskId, mainIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    // Entry point for AlarmScheduler's single-alarm queue, which has already
+    // filtered out completed and deleted tasks.
+    static void deliverAll(Context context, List<Task> tasks) {
+        List<ReminderDispatcher.Reminder> reminders = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            reminders.add(new ReminderDispatcher.Reminder(task.id, task.alarmId, task.title, task.description));
+        }
+        showNotifications(context, reminders);
+        for (Task task : tasks) {
+            rearmIfRecurring(context, task);
+        }
+    }
 
-            Intent deleteIntent = new Intent(context, NotificationDismissReceiver.class);
-            deleteIntent.putExtra(EXTRA_TASK_TITLE, taskTitle);
-            deleteIntent.putExtra("task_description", taskDescription);
-            deleteIntent.putExtra(EXTRA_TASK_ID, taskId);
-            PendingIntent deletePendingIntent = PendingIntent.getBroadcast(context, taskId + 10000, deleteIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    /**
+     * Posts one notification per reminder, reading preferences and checking the
+     * permission once for the whole batch. Two or more are grouped under a
+     * summary that alerts once instead of once per reminder; a single reminder
+     * is posted ungrouped.
+     */
+    static void showNotifications(Context context, List<ReminderDispatcher.Reminder> reminders) {
+        if (reminders.isEmpty()) {
+            return;
+        }
+        if (ActivityCompat.checkSelfPermission(context,
+                android.Manifest.permission.POST_NOTIFICATIONS) != PackageManager.PERMISSION_GRANTED) {
+            Log.w(TAG, "POST_NOTIFICATIONS permission not granted");
+            return;
+        }
+        NotificationHelper.ensureNotificationChannel(context);
+        boolean persistentEnabled = androidx.preference.PreferenceManager.getDefaultSharedPreferences(context)
+                .getBoolean("persistent_notifications", false);
+        boolean grouped = reminders.size() > 1;
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
 
-            String contentText = taskTitle != null ? taskTitle : "You have a reminder";
-            if (taskDescription != null && !taskDescription.isEmpty()) {
-                contentText = taskTitle + ": " + taskDescription;
+        for (ReminderDispatcher.Reminder reminder : reminders) {
+            try {
+                NotificationCompat.Builder builder = buildNotification(context, persistentEnabled,
+                        reminder.taskId, reminder.alarmId, reminder.title, reminder.description);
+                // Only batches that post a summary are grouped, so a lone reminder never
+                // joins a group whose summary (id 0) was built for an earlier batch.
+                if (grouped) {
+                    builder.setGroup(GROUP_KEY)
+                            .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY);
+                }
+                notificationManager.notify(reminder.taskId, builder.build());
+            } catch (Exception e) {
+                Log.e(TAG, "Error building notification: " + e.getMessage(), e);
             }
+        }
+        if (grouped) {
+            notificationManager.notify(SUMMARY_NOTIFICATION_ID, buildSummary(context, persistentEnabled, reminders));
+        }
+        Log.d(TAG, "Displayed " + reminders.size() + " reminder notifications");
+    }
 
-            android.content.SharedPreferences prefs = androidx.preference.PreferenceManager
-                    .getDefaultSharedPreferences(context);
-            boolean persistentEnabled = prefs.getBoolean("persistent_notifications", false);
-
-            Log.d(TAG, "Persistent notifications enabled: " + persistentEnabled);
-
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(context, NotificationHelper.CHANNEL_ID)
-                    .setSmallIcon(R.drawable.ic_alarm)
-                    .setContentTitle("NextDO Reminder")
-                    .setContentText(contentText)
-                    .setStyle(new NotificationCompat.BigTextStyle().bigText(contentText))
-                    .setPriority(NotificationCompat.PRIORITY_MAX)
-                    .setCategory(NotificationCompat.CATEGORY_REMINDER)
-                    .setContentIntent(pendingIntent)
-                    .setAutoCancel(!persistentEnabled)
-                    .setVisibility(NotificationCompat.VISIBILITY_PUBLIC);
-
-            // Add Snooze Action
-            int alarmId = intent.getIntExtra("alarm_id", 0);
-            Intent snoozeIntent = new Intent(context, SnoozeReceiver.class);
-            snoozeIntent.putExtra(EXTRA_TASK_ID, taskId);
-            snoozeIntent.putExtra(EXTRA_TASK_TITLE, taskTitle);
-            snoozeIntent.putExtra("alarm_id", alarmId);
-            snoozeIntent.putExtra("task_description", taskDescription);
-            PendingIntent snoozePendingIntent = PendingIntent.getBroadcast(context, taskId + 20000, snoozeIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-            builder.addAction(R.drawable.ic_snooze, "Snooze", snoozePendingIntent);
-
-            // Handle persistent vs regular notification differently
-            if (persistentEnabled) {
-                // For persistent notifications: keep them ongoing but still alert
-                builder.setOngoing(true)
-                        .setDeleteIntent(deletePendingIntent)
-                        .setOnlyAlertOnce(false) // CRITICAL: Allow alerts even for persistent
-                        .setDefaults(NotificationCompat.DEFAULT_LIGHTS | NotificationCompat.DEFAULT_SOUND
-                                | NotificationCompat.DEFAULT_VIBRATE)
-                        .setSound(android.media.RingtoneManager
-                                .getDefaultUri(android.media.RingtoneManager.TYPE_NOTIFICATION))
-                        .setVibrate(new long[] { 0, 500, 250, 500 });
-                Log.d(TAG, "Persistent notification: sound and vibration enabled");
-            } else {
-                // For regular notifications: auto-cancel and alert once
-                builder.setOngoing(false)
-                        .setOnlyAlertOnce(true)
-                        .setDefaults(NotificationCompat.DEFAULT_LIGHTS | NotificationCompat.DEFAULT_SOUND
-                                | NotificationCompat.DEFAULT_VIBRATE)
-                        .setSound(android.media.RingtoneManager
-                                .getDefaultUri(android.media.RingtoneManager.TYPE_NOTIFICATION))
-                        .setVibrate(new long[] { 0, 500, 250, 500 });
-                Log.d(TAG, "Regular notification: auto-cancel enabled");
-            }
+    private static android.app.Notification buildSummary(Context context, boolean persistentEnabled,
+            List<ReminderDispatcher.Reminder> reminders) {
+        String summaryText = reminders.size() + " reminders";
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle().setSummaryText(summaryText);
+        for (ReminderDispatcher.Reminder reminder : reminders) {
+            style.addLine(reminder.title != null ? reminder.title : "You have a reminder");
+        }
+        Intent mainIntent = new Intent(context, MainActivity.class);
+        mainIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(context, SUMMARY_NOTIFICATION_ID, mainIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        return new NotificationCompat.Builder(context, NotificationHelper.CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_alarm)
+                .setContentTitle("NextDO Reminder")
+                .setContentText(summaryText)
+                .setStyle(style)
+                .setGroup(GROUP_KEY)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setCategory(NotificationCompat.CATEGORY_REMINDER)
+                .setContentIntent(pendingIntent)
+                .setAutoCancel(!persistentEnabled)
+                .setOngoing(persistentEnabled)
+                .setDefaults(NotificationCompat.DEFAULT_LIGHTS | NotificationCompat.DEFAULT_SOUND
+                        | NotificationCompat.DEFAULT_VIBRATE)
+                .setVibrate(new long[] { 0, 500, 250, 500 })
+                .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+                .build();
+    }
 
-            NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+    static NotificationCompat.Builder buildNotification(Context context, boolean persistentEnabled, int taskId,
+            int alarmId, String taskTitle, String taskDescription) {
+        Intent mainIntent = new Intent(context, MainActivity.class);
+        mainIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(context, taskId, mainIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        Intent deleteIntent = new Intent(context, NotificationDismissReceiver.class);
+        deleteIntent.putExtra(EXTRA_TASK_TITLE, taskTitle);
+        deleteIntent.putExtra("task_description", taskDescription);
+        deleteIntent.putExtra(EXTRA_TASK_ID, taskId);
+        PendingIntent deletePendingIntent = PendingIntent.getBroadcast(context, taskId + 10000, deleteIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        String contentText = taskTitle != null ? taskTitle : "You have a reminder";
+        if (taskDescription != null && !taskDescription.isEmpty()) {
+            contentText = taskTitle + ": " + taskDescription;
+        }
 
-            if (ActivityCompat.checkSelfPermission(context,
-                    android.Manifest.permission.POST_NOTIFICATIONS) == PackageManager.PERMISSION_GRANTED) {
-                notificationManager.notify(taskId, builder.build());
-                Log.d(TAG, "Notification displayed successfully for task " + taskId);
-            } else {
-                Log.w(TAG, "POST_NOTIFICATIONS permission not granted");
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in onReceive: " + e.getMessage(), e);
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, NotificationHelper.CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_alarm)
+                .setContentTitle("NextDO Reminder")
+                .setContentText(contentText)
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(contentText))
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setCategory(NotificationCompat.CATEGORY_REMINDER)
+                .setContentIntent(pendingIntent)
+                .setAutoCancel(!persistentEnabled)
+                .setVisibility(NotificationCompat.VISIBILITY_PUBLIC);
+
+        // Add Snooze Action
+        Intent snoozeIntent = new Intent(context, SnoozeReceiver.class);
+        snoozeIntent.putExtra(EXTRA_TASK_ID, taskId);
+        snoozeIntent.putExtra(EXTRA_TASK_TITLE, taskTitle);
+        snoozeIntent.putExtra("alarm_id", alarmId);
+        snoozeIntent.putExtra("task_description", taskDescription);
+        PendingIntent snoozePendingIntent = PendingIntent.getBroadcast(context, taskId + 20000, snoozeIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        builder.addAction(R.drawable.ic_snooze, "Snooze", snoozePendingIntent);
+
+        // Handle persistent vs regular notification differently
+        if (persistentEnabled) {
+            // For persistent notifications: keep them ongoing but still alert
+            builder.setOngoing(true)
+                    .setDeleteIntent(deletePendingIntent)
+                    .setOnlyAlertOnce(false) // CRITICAL: Allow alerts even for persistent
+                    .setDefaults(NotificationCompat.DEFAULT_LIGHTS | NotificationCompat.DEFAULT_SOUND
+                            | NotificationCompat.DEFAULT_VIBRATE)
+                    .setSound(android.media.RingtoneManager
+                            .getDefaultUri(android.media.RingtoneManager.TYPE_NOTIFICATION))
+                    .setVibrate(new long[] { 0, 500, 250, 500 });
+        } else {
+            // For regular notifications: auto-cancel and alert once
+            builder.setOngoing(false)
+                    .setOnlyAlertOnce(true)
+                    .setDefaults(NotificationCompat.DEFAULT_LIGHTS | NotificationCompat.DEFAULT_SOUND
+                            | NotificationCompat.DEFAULT_VIBRATE)
+                    .setSound(android.media.RingtoneManager
+                            .getDefaultUri(android.media.RingtoneManager.TYPE_NOTIFICATION))
+                    .setVibrate(new long[] { 0, 500, 250, 500 });
         }
+        return builder;
     }
 }
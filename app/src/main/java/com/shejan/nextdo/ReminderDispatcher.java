@@ -0,0 +1,222 @@
+package com.shejan.nextdo;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background pipeline for ReminderBroadcastReceiver.
+ *
+ * Each alarm's PendingResult is queued here and the receiver returns at once.
+ * Alarms that arrive within {@link #COALESCE_DELAY_MS} of each other are handled
+ * as one batch on a dedicated thread: one duplicate check per task, one database
+ * lookup for all of them, one preferences read, and a grouped notification.
+ * Every PendingResult is finished after at most {@link #RECEIVE_BUDGET_MS},
+ * even if the batch is still running, so a slow disk can't ANR the receiver.
+ */
+final class ReminderDispatcher {
+    private static final String TAG = "ReminderDispatcher";
+    // Broadcasts must finish within ~10 s of goAsync(); leave headroom.
+    static final long RECEIVE_BUDGET_MS = 8000;
+    static final long COALESCE_DELAY_MS = 200;
+    // A second broadcast for the same task and alarm inside this window is a duplicate.
+    static final long DEDUPE_WINDOW_MS = 1000;
+
+    /** What an alarm intent carries; title and description are only a fallback. */
+    static final class Reminder {
+        final int taskId;
+        final int alarmId;
+        final String title;
+        final String description;
+
+        Reminder(int taskId, int alarmId, String title, String description) {
+            this.taskId = taskId;
+            this.alarmId = alarmId;
+            this.title = title;
+            this.description = description;
+        }
+
+        long key() {
+            return ((long) taskId << 32) | (alarmId & 0xFFFFFFFFL);
+        }
+    }
+
+    /** Remembers recent deliveries per task/alarm and rejects repeats inside the window. */
+    static final class RecentDeliveries {
+        private final long window;
+        private final Map<Long, Long> lastDelivered = new HashMap<>();
+
+        RecentDeliveries(long window) {
+            this.window = window;
+        }
+
+        boolean tryDeliver(long key, long now) {
+            Iterator<Long> times = lastDelivered.values().iterator();
+            while (times.hasNext()) {
+                if (now - times.next() >= window) {
+                    times.remove();
+                }
+            }
+            if (lastDelivered.containsKey(key)) {
+                return false;
+            }
+            lastDelivered.put(key, now);
+            return true;
+        }
+
+        int size() {
+            return lastDelivered.size();
+        }
+    }
+
+    private static final class Pending {
+        final Reminder reminder;
+        final BroadcastReceiver.PendingResult result;
+        final AtomicBoolean finished = new AtomicBoolean();
+        final Runnable watchdog;
+
+        Pending(Reminder reminder, BroadcastReceiver.PendingResult result) {
+            this.reminder = reminder;
+            this.result = result;
+            this.watchdog = () -> {
+                Log.w(TAG, "Reminder " + reminder.taskId + " over budget, releasing the broadcast");
+                finish();
+            };
+        }
+
+        void finish() {
+            if (result != null && finished.compareAndSet(false, true)) {
+                result.finish();
+            }
+        }
+    }
+
+    private static volatile ReminderDispatcher INSTANCE;
+
+    private final Context context;
+    private final Handler worker;
+    // Watchdogs run on the main thread so a stuck batch can't delay them.
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final RecentDeliveries recent = new RecentDeliveries(DEDUPE_WINDOW_MS);
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private boolean drainScheduled;
+
+    private ReminderDispatcher(Context context) {
+        this.context = context.getApplicationContext();
+        HandlerThread thread = new HandlerThread("reminder-dispatch", android.os.Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        worker = new Handler(thread.getLooper());
+    }
+
+    static ReminderDispatcher getInstance(final Context context) {
+        if (INSTANCE == null) {
+            synchronized (ReminderDispatcher.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ReminderDispatcher(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /** Queues {@code reminder}; {@code result} is finished when it is handled or the budget runs out. */
+    void enqueue(Reminder reminder, BroadcastReceiver.PendingResult result) {
+        Pending entry = new Pending(reminder, result);
+        main.postDelayed(entry.watchdog, RECEIVE_BUDGET_MS);
+        synchronized (lock) {
+            pending.add(entry);
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        worker.postDelayed(this::drain, COALESCE_DELAY_MS);
+    }
+
+    private void drain() {
+        List<Pending> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            drainScheduled = false;
+        }
+        try {
+            dispatch(batch);
+        } catch (Exception e) {
+            Log.e(TAG, "Error dispatching reminders: " + e.getMessage(), e);
+        } finally {
+            for (Pending entry : batch) {
+                main.removeCallbacks(entry.watchdog);
+                entry.finish();
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        long now = System.currentTimeMillis();
+        List<Reminder> fresh = new ArrayList<>(batch.size());
+        List<Integer> ids = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            if (recent.tryDeliver(entry.reminder.key(), now)) {
+                fresh.add(entry.reminder);
+                ids.add(entry.reminder.taskId);
+            } else {
+                Log.d(TAG, "Duplicate broadcast for task " + entry.reminder.taskId + ", ignoring");
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        TaskDao taskDao = AppDatabase.getDatabase(context).taskDao();
+        Map<Integer, Task> tasks = null;
+        try {
+            tasks = new HashMap<>();
+            for (List<Integer> chunk : TaskDao.chunk(ids)) {
+                for (Task task : taskDao.getTasksByIds(chunk)) {
+                    tasks.put(task.id, task);
+                }
+            }
+        } catch (Exception e) {
+            // Continue anyway - better to show notification than skip it
+            Log.w(TAG, "Could not check if tasks are completed: " + e.getMessage());
+        }
+
+        List<Reminder> toShow = new ArrayList<>(fresh.size());
+        List<Task> toRearm = new ArrayList<>(fresh.size());
+        for (Reminder reminder : fresh) {
+            if (tasks == null) {
+                toShow.add(reminder);
+                continue;
+            }
+            Task task = tasks.get(reminder.taskId);
+            if (task == null && reminder.alarmId != 0) {
+                task = taskDao.getTaskByAlarmId(reminder.alarmId);
+            }
+            if (!ReminderBroadcastReceiver.isStillDue(task, reminder.taskId)) {
+                continue;
+            }
+            // The extras may hold a list preview; the stored row is authoritative.
+            toShow.add(new Reminder(reminder.taskId, reminder.alarmId, task.title, task.description));
+            toRearm.add(task);
+        }
+
+        ReminderBroadcastReceiver.showNotifications(context, toShow);
+        for (Task task : toRearm) {
+            ReminderBroadcastReceiver.rearmIfRecurring(context, task);
+        }
+        Log.d(TAG, "Dispatched " + toShow.size() + " of " + batch.size() + " reminders in "
+                + (System.currentTimeMillis() - now) + " ms");
+    }
+}
@@ -0,0 +1,21 @@
+package com.shejan.nextdo;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * Fired by the single alarm that AlarmScheduler keeps armed for the head of the
+ * reminder queue. Delivers everything that is due and arms the next reminder.
+ */
+public class ReminderQueueReceiver extends BroadcastReceiver {
+    private static final String TAG = "ReminderQueueReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        Log.d(TAG, "Reminder queue alarm received");
+        final PendingResult pendingResult = goAsync();
+        new AlarmScheduler(context).dispatchDueRemindersAsync(pendingResult::finish);
+    }
+}
@@ -0,0 +1,37 @@
+package com.shejan.nextdo;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Formats reminder times for list rows. One formatter and Date are reused, and
+ * results are kept in a small direct-mapped cache keyed by the timestamp, so
+ * re-binding rows that were already shown allocates nothing. Main thread only.
+ */
+public final class ReminderTextCache {
+    static final String PATTERN = "MMM d, h:mm a";
+    private static final int SIZE = 256; // 2^8, see the shift in format()
+
+    private final SimpleDateFormat format;
+    private final Date date = new Date();
+    private final long[] keys = new long[SIZE];
+    private final String[] values = new String[SIZE];
+
+    public ReminderTextCache(Locale locale) {
+        format = new SimpleDateFormat(PATTERN, locale);
+    }
+
+    public String format(long reminderTime) {
+        // Fibonacci hash of the timestamp down to 8 bits.
+        int slot = (int) (reminderTime ^ (reminderTime >>> 32)) * 0x9E3779B9 >>> 24;
+        if (values[slot] != null && keys[slot] == reminderTime) {
+            return values[slot];
+        }
+        date.setTime(reminderTime);
+        String text = format.format(date);
+        keys[slot] = reminderTime;
+        values[slot] = text;
+        return text;
+    }
+}
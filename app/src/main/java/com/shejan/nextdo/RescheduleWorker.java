@@ -0,0 +1,104 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.preference.PreferenceManager;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.List;
+
+/**
+ * Re-registers reminder alarms after a reboot. Replaces the loop in
+ * BootCompletedReceiver that loaded every task on the shared database executor.
+ *
+ * Only active, future reminders are read, {@link #CHUNK_SIZE} at a time in
+ * (reminderTime, id) order from the reminder index. The position of the last
+ * armed row is committed after each chunk, so if the process dies mid-way
+ * WorkManager reruns the job and it resumes there; alarms that are already
+ * registered are skipped.
+ */
+public class RescheduleWorker extends Worker {
+    private static final String TAG = "RescheduleWorker";
+    static final String UNIQUE_NAME = "alarm-reschedule";
+    static final int CHUNK_SIZE = 100;
+    static final String PREF_CURSOR_TIME = "reschedule_cursor_time";
+    static final String PREF_CURSOR_ID = "reschedule_cursor_id";
+
+    public RescheduleWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /** Starts a fresh reschedule pass, replacing any unfinished one. */
+    public static void enqueue(Context context) {
+        Context appContext = context.getApplicationContext();
+        clearCursor(PreferenceManager.getDefaultSharedPreferences(appContext));
+        WorkManager.getInstance(appContext).enqueueUniqueWork(UNIQUE_NAME, ExistingWorkPolicy.REPLACE,
+                new OneTimeWorkRequest.Builder(RescheduleWorker.class).build());
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
+        AlarmScheduler alarmScheduler = new AlarmScheduler(context);
+        try {
+            if (!alarmScheduler.areNotificationsEnabled()) {
+                Log.d(TAG, "Notifications disabled, nothing to reschedule");
+            } else if (alarmScheduler.isSingleAlarmMode()) {
+                // The queue lives in the database; arming its head is enough.
+                alarmScheduler.requestQueueRearm();
+                Log.d(TAG, "Re-armed reminder queue");
+            } else if (!rescheduleInChunks(context, prefs, alarmScheduler)) {
+                return Result.retry();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Reschedule failed: " + e.getMessage(), e);
+            return Result.retry();
+        }
+        clearCursor(prefs);
+        return Result.success();
+    }
+
+    // Returns false if the work was stopped before the last chunk.
+    private boolean rescheduleInChunks(Context context, SharedPreferences prefs, AlarmScheduler alarmScheduler) {
+        TaskDao taskDao = AppDatabase.getDatabase(context).taskDao();
+        long now = System.currentTimeMillis();
+        long afterTime = prefs.getLong(PREF_CURSOR_TIME, 0);
+        int afterId = prefs.getInt(PREF_CURSOR_ID, 0);
+        if (afterTime < now) {
+            // Fresh run, or resuming after reminders up to now have passed anyway.
+            afterTime = now;
+            afterId = 0;
+        }
+
+        int armed = 0;
+        while (!isStopped()) {
+            List<Task> chunk = taskDao.getRemindersAfter(afterTime, afterId, CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            armed += alarmScheduler.restoreAlarms(chunk);
+            Task last = chunk.get(chunk.size() - 1);
+            afterTime = last.reminderTime;
+            afterId = last.id;
+            prefs.edit().putLong(PREF_CURSOR_TIME, afterTime).putInt(PREF_CURSOR_ID, afterId).commit();
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        Log.d(TAG, "Armed " + armed + " alarms" + (isStopped() ? " before being stopped" : ""));
+        return !isStopped();
+    }
+
+    private static void clearCursor(SharedPreferences prefs) {
+        prefs.edit().remove(PREF_CURSOR_TIME).remove(PREF_CURSOR_ID).apply();
+    }
+}
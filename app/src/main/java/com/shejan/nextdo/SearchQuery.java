@@ -0,0 +1,72 @@
+package com.shejan.nextdo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns what the user typed into an FTS4 MATCH expression. Input is split into
+ * letter/digit tokens, so quotes, '-', '*' and other MATCH syntax can't reach
+ * SQLite, and every token becomes a prefix term: "buy mil" matches "Buy milk".
+ * Combining marks stay inside a token, as in FTS4's simple tokenizer, so words
+ * in scripts with vowel signs (Bengali, Devanagari...) aren't split apart.
+ */
+final class SearchQuery {
+    // Longer input only makes the MATCH slower without narrowing it usefully.
+    static final int MAX_TOKENS = 8;
+
+    private SearchQuery() {
+    }
+
+    /** MATCH expression for {@code input} over every column, or null if it has nothing to search for. */
+    static String toMatch(String input) {
+        return toMatch(input, null);
+    }
+
+    /**
+     * MATCH expression for {@code input} restricted to {@code column} (every
+     * column if null), or null if it has nothing to search for.
+     */
+    static String toMatch(String input, String column) {
+        List<String> tokens = tokenize(input);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String token : tokens) {
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            if (column != null) {
+                match.append(column).append(':');
+            }
+            match.append(token).append('*');
+        }
+        return match.toString();
+    }
+
+    static List<String> tokenize(String input) {
+        List<String> tokens = new ArrayList<>();
+        if (input == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= input.length() && tokens.size() < MAX_TOKENS; i++) {
+            boolean tokenChar = i < input.length() && isTokenChar(input.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(input.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isTokenChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+}
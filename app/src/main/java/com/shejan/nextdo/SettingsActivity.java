@@ -15,10 +15,6 @@ import androidx.preference.PreferenceManager;
 
 import com.shejan.nextdo.databinding.ActivitySettingsBinding;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
-
 public class SettingsActivity extends AppCompatActivity {
 
     private ActivitySettingsBinding binding;
@@ -28,25 +24,21 @@ public class SettingsActivity extends AppCompatActivity {
             new ActivityResultContracts.GetContent(),
             uri -> {
                 if (uri != null) {
-                    try {
-                        InputStream inputStream = getContentResolver().openInputStream(uri);
-                        File file = new File(getFilesDir(), "custom_background.jpg");
-                        FileOutputStream outputStream = new FileOutputStream(file);
-                        byte[] buffer = new byte[1024];
-                        int length;
-                        while ((inputStream != null) && ((length = inputStream.read(buffer)) > 0)) {
-                            outputStream.write(buffer, 0, length);
+                    // Decoding, EXIF rotation and re-encoding happen off the main thread.
+                    BackgroundImageStore.importImage(this, uri, bitmap -> {
+                        // The import outlives the screen if the user leaves mid-decode: the
+                        // choice is still saved, but only a live activity updates its views.
+                        android.content.Context appContext = getApplicationContext();
+                        if (bitmap != null) {
+                            sharedPreferences.edit().putString("app_background", "custom").apply();
+                            if (!isFinishing() && !isDestroyed()) {
+                                updateCurrentBackgroundText("custom");
+                            }
+                            Toast.makeText(appContext, "Background set", Toast.LENGTH_SHORT).show();
+                        } else {
+                            Toast.makeText(appContext, "Failed to set background", Toast.LENGTH_SHORT).show();
                         }
-                        if (inputStream != null)
-                            inputStream.close();
-                        outputStream.close();
-
-                        sharedPreferences.edit().putString("app_background", "custom").apply();
-                        updateCurrentBackgroundText("custom");
-                        Toast.makeText(this, "Background set", Toast.LENGTH_SHORT).show();
-                    } catch (Exception e) {
-                        Toast.makeText(this, "Failed to set background", Toast.LENGTH_SHORT).show();
-                    }
+                    });
                 }
             });
 
@@ -141,6 +133,7 @@ public class SettingsActivity extends AppCompatActivity {
                 // Apply color to notification switch immediately
                 applySwitchColors(binding.notificationsSwitch, color);
                 applySwitchColors(binding.persistentNotificationsSwitch, color);
+                applySwitchColors(binding.singleAlarmSwitch, color);
 
                 dialog.dismiss();
                 Toast.makeText(this, "Accent color changed", Toast.LENGTH_SHORT).show();
@@ -276,6 +269,7 @@ public class SettingsActivity extends AppCompatActivity {
                     R.anim.switch_animation);
             binding.notificationsSwitch.startAnimation(animation);
             sharedPreferences.edit().putBoolean("notifications", isChecked).apply();
+            new AlarmScheduler(this).requestQueueRearm();
         });
 
         applySwitchColors(binding.persistentNotificationsSwitch, accentColor);
@@ -288,6 +282,16 @@ public class SettingsActivity extends AppCompatActivity {
             sharedPreferences.edit().putBoolean("persistent_notifications", isChecked).apply();
         });
 
+        applySwitchColors(binding.singleAlarmSwitch, accentColor);
+        binding.singleAlarmSwitch
+                .setChecked(sharedPreferences.getBoolean(AlarmScheduler.PREF_SINGLE_ALARM_MODE, false));
+        binding.singleAlarmSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            android.view.animation.Animation animation = android.view.animation.AnimationUtils.loadAnimation(this,
+                    R.anim.switch_animation);
+            binding.singleAlarmSwitch.startAnimation(animation);
+            new AlarmScheduler(this).setSingleAlarmMode(isChecked);
+        });
+
         binding.snoozeSetting.setOnClickListener(v -> {
             try {
                 String[] snoozeOptions = getResources().getStringArray(R.array.snooze_duration_entries);
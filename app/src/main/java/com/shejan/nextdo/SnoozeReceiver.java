@@ -8,6 +8,8 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.widget.Toast;
 
@@ -34,6 +36,36 @@ public class SnoozeReceiver extends BroadcastReceiver {
             notificationManager.cancel(taskId);
         }
 
+        // Re-read the task by primary key so a snooze never resurrects a task that
+        // was completed or deleted while the notification was showing, and so the
+        // re-armed reminder carries the current title/description.
+        final PendingResult pendingResult = goAsync();
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                String title = taskTitle;
+                String description = taskDescription;
+                try {
+                    Task task = AppDatabase.getDatabase(context).taskDao().getTaskById(taskId);
+                    if (task == null || task.isCompleted || task.isDeleted) {
+                        Log.d(TAG, "Task " + taskId + " is no longer active, not snoozing");
+                        return;
+                    }
+                    title = task.title;
+                    description = task.description;
+                } catch (Exception e) {
+                    Log.w(TAG, "Could not look up task " + taskId + ": " + e.getMessage());
+                }
+                scheduleSnooze(context, intent, taskId, title, description);
+            } catch (Exception e) {
+                Log.e(TAG, "Error scheduling snooze: " + e.getMessage(), e);
+            } finally {
+                pendingResult.finish();
+            }
+        });
+    }
+
+    private void scheduleSnooze(Context context, Intent intent, int taskId, String taskTitle,
+            String taskDescription) {
         // Get snooze duration from preferences
         SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
         String durationStr = prefs.getString("snooze_duration", "300000"); // Default 5 mins
@@ -68,12 +100,17 @@ public class SnoozeReceiver extends BroadcastReceiver {
 
                 // Calculate minutes for toast message
                 long minutes = duration / 60000;
-                Toast.makeText(context, "Snoozed for " + minutes + " minutes", Toast.LENGTH_SHORT).show();
+                showToast(context, "Snoozed for " + minutes + " minutes");
                 Log.d(TAG, "Snoozed task " + taskId + " for " + duration + "ms");
             } catch (SecurityException e) {
                 Log.e(TAG, "Permission error scheduling snooze: " + e.getMessage());
-                Toast.makeText(context, "Failed to snooze: Permission denied", Toast.LENGTH_SHORT).show();
+                showToast(context, "Failed to snooze: Permission denied");
             }
         }
     }
+
+    private void showToast(Context context, String message) {
+        new Handler(Looper.getMainLooper())
+                .post(() -> Toast.makeText(context, message, Toast.LENGTH_SHORT).show());
+    }
 }
@@ -0,0 +1,228 @@
+package com.shejan.nextdo;
+
+/**
+ * StackBlur on a packed ARGB pixel array, in place. Alpha is preserved.
+ * Kept free of android.graphics so it can be benchmarked on the JVM.
+ */
+public final class StackBlur {
+
+    /**
+     * Scratch arrays for one blur. Reusing a workspace across calls of the same
+     * size and radius makes a blur allocation-free. Not thread-safe.
+     */
+    public static final class Workspace {
+        int[] r = new int[0];
+        int[] g = new int[0];
+        int[] b = new int[0];
+        int[] vmin = new int[0];
+        int[] dv;
+        int[][] stack;
+        int radius = -1;
+
+        void ensure(int w, int h, int radius) {
+            int wh = w * h;
+            if (r.length < wh) {
+                r = new int[wh];
+                g = new int[wh];
+                b = new int[wh];
+            }
+            if (vmin.length < Math.max(w, h)) {
+                vmin = new int[Math.max(w, h)];
+            }
+            if (this.radius != radius) {
+                int div = radius + radius + 1;
+                int divsum = (div + 1) >> 1;
+                divsum *= divsum;
+                dv = new int[256 * divsum];
+                for (int i = 0; i < 256 * divsum; i++) {
+                    dv[i] = (i / divsum);
+                }
+                stack = new int[div][3];
+                this.radius = radius;
+            }
+        }
+    }
+
+    private StackBlur() {
+    }
+
+    public static void blur(int[] pix, int w, int h, int radius) {
+        blur(pix, w, h, radius, new Workspace());
+    }
+
+    public static void blur(int[] pix, int w, int h, int radius, Workspace workspace) {
+        workspace.ensure(w, h, radius);
+
+        int wm = w - 1;
+        int hm = h - 1;
+        int div = radius + radius + 1;
+
+        int[] r = workspace.r;
+        int[] g = workspace.g;
+        int[] b = workspace.b;
+        int rsum, gsum, bsum, x, y, i, p, yp, yi, yw;
+        int[] vmin = workspace.vmin;
+        int[] dv = workspace.dv;
+
+        yw = yi = 0;
+
+        int[][] stack = workspace.stack;
+        int stackpointer;
+        int stackstart;
+        int[] sir;
+        int rbs;
+        int r1 = radius + 1;
+        int routsum, goutsum, boutsum;
+        int rinsum, ginsum, binsum;
+
+        for (y = 0; y < h; y++) {
+            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
+            for (i = -radius; i <= radius; i++) {
+                p = pix[yi + Math.min(wm, Math.max(i, 0))];
+                sir = stack[i + radius];
+                sir[0] = (p & 0xff0000) >> 16;
+                sir[1] = (p & 0x00ff00) >> 8;
+                sir[2] = (p & 0x0000ff);
+                rbs = r1 - Math.abs(i);
+                rsum += sir[0] * rbs;
+                gsum += sir[1] * rbs;
+                bsum += sir[2] * rbs;
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                }
+            }
+            stackpointer = radius;
+
+            for (x = 0; x < w; x++) {
+
+                r[yi] = dv[rsum];
+                g[yi] = dv[gsum];
+                b[yi] = dv[bsum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+
+                stackstart = stackpointer - radius + div;
+                sir = stack[stackstart % div];
+
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+
+                if (y == 0) {
+                    vmin[x] = Math.min(x + radius + 1, wm);
+                }
+                p = pix[yw + vmin[x]];
+
+                sir[0] = (p & 0xff0000) >> 16;
+                sir[1] = (p & 0x00ff00) >> 8;
+                sir[2] = (p & 0x0000ff);
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[(stackpointer) % div];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+
+                yi++;
+            }
+            yw += w;
+        }
+        for (x = 0; x < w; x++) {
+            rinsum = ginsum = binsum = routsum = goutsum = boutsum = rsum = gsum = bsum = 0;
+            yp = -radius * w;
+            for (i = -radius; i <= radius; i++) {
+                yi = Math.max(0, yp) + x;
+
+                sir = stack[i + radius];
+
+                rbs = r1 - Math.abs(i);
+
+                rsum += r[yi] * rbs;
+                gsum += g[yi] * rbs;
+                bsum += b[yi] * rbs;
+
+                if (i > 0) {
+                    rinsum += sir[0];
+                    ginsum += sir[1];
+                    binsum += sir[2];
+                } else {
+                    routsum += sir[0];
+                    goutsum += sir[1];
+                    boutsum += sir[2];
+                }
+
+                if (i < hm) {
+                    yp += w;
+                }
+            }
+            yi = x;
+            stackpointer = radius;
+            for (y = 0; y < h; y++) {
+                // Preserve alpha channel: ( 0xff000000 & pix[yi] )
+                pix[yi] = (0xff000000 & pix[yi]) | (dv[rsum] << 16) | (dv[gsum] << 8) | dv[bsum];
+
+                rsum -= routsum;
+                gsum -= goutsum;
+                bsum -= boutsum;
+
+                stackstart = stackpointer - radius + div;
+                sir = stack[stackstart % div];
+
+                routsum -= sir[0];
+                goutsum -= sir[1];
+                boutsum -= sir[2];
+
+                if (x == 0) {
+                    vmin[y] = Math.min(y + r1, hm) * w;
+                }
+                p = x + vmin[y];
+
+                sir[0] = r[p];
+                sir[1] = g[p];
+                sir[2] = b[p];
+
+                rinsum += sir[0];
+                ginsum += sir[1];
+                binsum += sir[2];
+
+                rsum += rinsum;
+                gsum += ginsum;
+                bsum += binsum;
+
+                stackpointer = (stackpointer + 1) % div;
+                sir = stack[stackpointer];
+
+                routsum += sir[0];
+                goutsum += sir[1];
+                boutsum += sir[2];
+
+                rinsum -= sir[0];
+                ginsum -= sir[1];
+                binsum -= sir[2];
+
+                yi += w;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.shejan.nextdo;
+
+import android.os.Trace;
+
+/**
+ * Named trace sections for the cold-start path. They show up in Perfetto and
+ * systrace captures and are what the macrobenchmark module's
+ * TraceSectionMetric measures, so keep the names in sync with StartupBenchmark.
+ */
+final class StartupTrace {
+    static final String APP_ON_CREATE = "NextDO.Application.onCreate";
+    static final String MAIN_THEME = "NextDO.MainActivity.theme";
+    static final String MAIN_INFLATE = "NextDO.MainActivity.inflate";
+    static final String MAIN_DRAWER = "NextDO.MainActivity.drawer";
+    static final String MAIN_LIST = "NextDO.MainActivity.list";
+    static final String MAIN_RESUME = "NextDO.MainActivity.onResume";
+    /** Prefix of work run by {@link IdleInitializer}. */
+    static final String IDLE_PREFIX = "NextDO.idle.";
+
+    private StartupTrace() {
+    }
+
+    static void begin(String section) {
+        Trace.beginSection(section);
+    }
+
+    static void end() {
+        Trace.endSection();
+    }
+}
@@ -1,9 +1,19 @@
 package com.shejan.nextdo;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "tasks")
+// Each index mirrors the WHERE/ORDER BY shape of a TaskDao query; keep them in
+// sync with AppDatabase.MIGRATION_4_5 and TaskDaoQueryPlanTest.
+@Entity(tableName = "tasks", indices = {
+        @Index(value = { "isDeleted", "isCompleted" }), // active/completed lists, ORDER BY id
+        @Index(value = { "isDeleted", "isCompleted", "reminderTime" }), // upcoming reminders
+        @Index(value = { "isDeleted", "isCompleted", "priority" }), // per-priority counts (MIGRATION_7_8)
+        @Index(value = { "isDeleted", "deletedTimestamp" }), // recycle bin list + expiry
+        @Index(value = { "isCompleted", "completedTimestamp" }), // completed expiry
+        @Index(value = { "alarmId" }) // receiver lookups
+})
 public class Task {
     @PrimaryKey(autoGenerate = true)
     public int id;
@@ -12,9 +22,16 @@ public class Task {
     public String priority = "";
     public long reminderTime = 0;
     public String repeat = "";
+    // First reminder of a repeating series; occurrences are computed from it so
+    // month-end dates don't drift. 0 means reminderTime is the anchor.
+    public long repeatAnchor = 0;
     public boolean isCompleted = false;
     public int alarmId = 0; // DEFINITIVE FIX: Add a dedicated, unique ID for alarms.
     public boolean isDeleted = false;
     public long deletedTimestamp = 0;
     public long completedTimestamp = 0;
+    // reminderTime of the last reminder the single-alarm queue delivered for this
+    // row. The reminder is pending while the two differ, so moving reminderTime
+    // (edit, re-arm, snooze) makes it pending again.
+    public long notifiedReminderTime = 0;
 }
@@ -0,0 +1,54 @@
+package com.shejan.nextdo;
+
+import java.util.Objects;
+
+/**
+ * Comparison of the TaskListItem fields the list renders, as a bitmask of what changed.
+ * TaskListAdapter uses the mask as its DiffUtil change payload so a row only
+ * re-applies the parts that differ. Pure Java so the list diff can be
+ * benchmarked outside Android.
+ */
+public final class TaskChanges {
+    public static final int TITLE = 1;
+    public static final int DESCRIPTION = 1 << 1;
+    public static final int PRIORITY = 1 << 2;
+    public static final int REMINDER = 1 << 3;
+    public static final int COMPLETION = 1 << 4;
+    /** Not rendered, but the row must pick up the new TaskListItem instance. */
+    public static final int REPEAT = 1 << 5;
+    /** Not a task field: the accent color changed. */
+    public static final int ACCENT = 1 << 6;
+    public static final int ALL = TITLE | DESCRIPTION | PRIORITY | REMINDER | COMPLETION | REPEAT | ACCENT;
+
+    private TaskChanges() {
+    }
+
+    /** Bitmask of the rendered fields that differ between the two versions of a row. */
+    public static int diff(TaskListItem oldItem, TaskListItem newItem) {
+        int changes = 0;
+        if (!Objects.equals(oldItem.title, newItem.title)) {
+            changes |= TITLE;
+        }
+        if (!Objects.equals(oldItem.description, newItem.description)) {
+            changes |= DESCRIPTION;
+        }
+        if (!Objects.equals(oldItem.priority, newItem.priority)) {
+            changes |= PRIORITY;
+        }
+        if (oldItem.reminderTime != newItem.reminderTime) {
+            changes |= REMINDER;
+        }
+        if (oldItem.isCompleted != newItem.isCompleted) {
+            changes |= COMPLETION;
+        }
+        if (!Objects.equals(oldItem.repeat, newItem.repeat)) {
+            changes |= REPEAT;
+        }
+        return changes;
+    }
+
+    /** True if a list row bound to {@code oldItem} would look the same bound to {@code newItem}. */
+    public static boolean sameContents(TaskListItem oldItem, TaskListItem newItem) {
+        return diff(oldItem, newItem) == 0;
+    }
+}
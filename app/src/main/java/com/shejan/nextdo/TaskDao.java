@@ -1,13 +1,16 @@
 package com.shejan.nextdo;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Dao
@@ -29,25 +32,320 @@ public interface TaskDao {
                             // Actually, for soft delete we use @Update. This @Delete is for permanent
                             // removal.
 
-    @Query("SELECT * FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 ORDER BY id DESC")
-    LiveData<List<Task>> getActiveTasks();
+    // List screens read this projection (as TaskListItem) instead of SELECT *:
+    // the description is cut to a preview, so long notes are neither copied out
+    // of the cursor nor kept alive by the pager and the differ.
+    int DESCRIPTION_PREVIEW_LENGTH = 200;
+    String LIST_COLUMNS = "tasks.id AS id, tasks.title AS title, "
+            + "CASE WHEN length(tasks.description) > " + DESCRIPTION_PREVIEW_LENGTH
+            + " THEN substr(tasks.description, 1, " + DESCRIPTION_PREVIEW_LENGTH + ") || '\u2026'"
+            + " ELSE tasks.description END AS description, "
+            + "tasks.priority AS priority, tasks.reminderTime AS reminderTime, tasks.repeat AS repeat, "
+            + "tasks.isCompleted AS isCompleted, tasks.isDeleted AS isDeleted, tasks.alarmId AS alarmId, "
+            + "tasks.deletedTimestamp AS deletedTimestamp";
 
-    @Query("SELECT * FROM tasks WHERE isDeleted = 0 AND isCompleted = 1 ORDER BY id DESC")
-    LiveData<List<Task>> getCompletedTasks();
+    // The SQL of the hot queries is kept in constants so TaskDaoQueryPlanTest
+    // can EXPLAIN exactly what Room runs.
+    String ACTIVE_TASKS = "SELECT " + LIST_COLUMNS
+            + " FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 ORDER BY id DESC";
+    String COMPLETED_TASKS = "SELECT " + LIST_COLUMNS
+            + " FROM tasks WHERE isDeleted = 0 AND isCompleted = 1 ORDER BY id DESC";
+    String DELETED_TASKS = "SELECT " + LIST_COLUMNS
+            + " FROM tasks WHERE isDeleted = 1 ORDER BY deletedTimestamp DESC";
 
-    @Query("SELECT * FROM tasks WHERE isDeleted = 0")
+    @Query(ACTIVE_TASKS)
+    LiveData<List<TaskListItem>> getActiveTasks();
+
+    @Query(COMPLETED_TASKS)
+    LiveData<List<TaskListItem>> getCompletedTasks();
+
+    // Paged variants of the list queries. Room invalidates the source on every
+    // table change, and the Pager only keeps a bounded window of rows in memory.
+    @Query(ACTIVE_TASKS)
+    PagingSource<Integer, TaskListItem> getActiveTasksPaged();
+
+    @Query(COMPLETED_TASKS)
+    PagingSource<Integer, TaskListItem> getCompletedTasksPaged();
+
+    @Query(DELETED_TASKS)
+    PagingSource<Integer, TaskListItem> getDeletedTasksPaged();
+
+    // Timeline (TimelinePagingSource): active tasks with a reminder in
+    // (reminderTime, id) order, then the ones without, newest first. Each query
+    // reads one side of a keyset cursor straight off the
+    // (isDeleted, isCompleted, reminderTime) index, whose entries end in the
+    // id, so no page sorts or skips rows. Rows are tagged with their
+    // TimelineBuckets section.
+    String TIMELINE_BUCKET = "CASE "
+            + "WHEN tasks.reminderTime < :now THEN " + TimelineBuckets.OVERDUE
+            + " WHEN tasks.reminderTime < :tomorrowStart THEN " + TimelineBuckets.TODAY
+            + " WHEN tasks.reminderTime < :dayAfterStart THEN " + TimelineBuckets.TOMORROW
+            + " WHEN tasks.reminderTime < :weekEnd THEN " + TimelineBuckets.THIS_WEEK
+            + " ELSE " + TimelineBuckets.LATER + " END AS bucket";
+    String TIMELINE_REMINDERS_AFTER = "SELECT " + LIST_COLUMNS + ", " + TIMELINE_BUCKET
+            + " FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime > 0 "
+            + "AND reminderTime >= :afterTime AND NOT (reminderTime = :afterTime AND id <= :afterId) "
+            + "ORDER BY reminderTime ASC, id ASC LIMIT :limit";
+    String TIMELINE_REMINDERS_BEFORE = "SELECT " + LIST_COLUMNS + ", " + TIMELINE_BUCKET
+            + " FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime > 0 "
+            + "AND reminderTime <= :beforeTime AND NOT (reminderTime = :beforeTime AND id >= :beforeId) "
+            + "ORDER BY reminderTime DESC, id DESC LIMIT :limit";
+    String TIMELINE_NO_REMINDER_OLDER = "SELECT " + LIST_COLUMNS + ", " + TimelineBuckets.NO_REMINDER
+            + " AS bucket FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime = 0 "
+            + "AND id < :beforeId ORDER BY id DESC LIMIT :limit";
+    String TIMELINE_NO_REMINDER_NEWER = "SELECT " + LIST_COLUMNS + ", " + TimelineBuckets.NO_REMINDER
+            + " AS bucket FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime = 0 "
+            + "AND id > :afterId ORDER BY id ASC LIMIT :limit";
+
+    @Query(TIMELINE_REMINDERS_AFTER)
+    List<TimelineTask> getTimelineRemindersAfter(long afterTime, int afterId, int limit, long now,
+            long tomorrowStart, long dayAfterStart, long weekEnd);
+
+    /** Nearest first, i.e. in reverse list order. */
+    @Query(TIMELINE_REMINDERS_BEFORE)
+    List<TimelineTask> getTimelineRemindersBefore(long beforeTime, int beforeId, int limit, long now,
+            long tomorrowStart, long dayAfterStart, long weekEnd);
+
+    @Query(TIMELINE_NO_REMINDER_OLDER)
+    List<TimelineTask> getTimelineNoReminderOlder(int beforeId, int limit);
+
+    /** Nearest first, i.e. in reverse list order. */
+    @Query(TIMELINE_NO_REMINDER_NEWER)
+    List<TimelineTask> getTimelineNoReminderNewer(int afterId, int limit);
+
+    String ALL_TASKS = "SELECT * FROM tasks WHERE isDeleted = 0";
+
+    @Query(ALL_TASKS)
     List<Task> getAllTasksSync();
 
+    // Counts for badges and empty states, as one row. Every subselect is a
+    // covering range count on an index, so the cost doesn't depend on how long
+    // descriptions are. Overdue uses SQLite's clock, which is read on each re-run.
+    String STATS = "SELECT "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 0 AND isCompleted = 0) AS active, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 0 AND isCompleted = 1) AS completed, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 1) AS deleted, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime > 0 "
+            + "AND reminderTime < CAST(strftime('%s', 'now') AS INTEGER) * 1000) AS overdue, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND priority = 'HIGH') "
+            + "AS highPriority, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND priority = 'MEDIUM') "
+            + "AS mediumPriority, "
+            + "(SELECT COUNT(*) FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND priority = 'LOW') "
+            + "AS lowPriority";
+
+    @Query(STATS)
+    LiveData<TaskStats> getStats();
+
+    // Widget feed: filtered, ordered and capped in SQL via the
+    // (isDeleted, isCompleted, reminderTime) index.
+    String UPCOMING_TASKS = "SELECT id, title, reminderTime FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 "
+            + "AND reminderTime > :now ORDER BY reminderTime ASC LIMIT :limit";
+
+    @Query(UPCOMING_TASKS)
+    List<UpcomingTask> getUpcomingTasks(long now, int limit);
+
+    // Single-alarm reminder queue (AlarmScheduler): the earliest undelivered
+    // reminder and every undelivered one due by :upTo, whenever it fell due, both
+    // in reminderTime index order.
+    String NEXT_REMINDER_TIME = "SELECT reminderTime FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 "
+            + "AND reminderTime > 0 AND alarmId != 0 AND notifiedReminderTime != reminderTime "
+            + "ORDER BY reminderTime ASC LIMIT 1";
+    String DUE_REMINDERS = "SELECT * FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime > 0 "
+            + "AND reminderTime <= :upTo AND alarmId != 0 AND notifiedReminderTime != reminderTime "
+            + "ORDER BY reminderTime ASC";
+
+    @Query(NEXT_REMINDER_TIME)
+    Long getNextReminderTime();
+
+    @Query(DUE_REMINDERS)
+    List<Task> getDueReminders(long upTo);
+
+    @Query("UPDATE tasks SET notifiedReminderTime = reminderTime WHERE id IN (:ids)")
+    int markRemindersNotified(List<Integer> ids);
+
+    // Past reminders that should not fire late: every active one when the queue
+    // takes over from per-task alarms, or those of tasks being restored or
+    // un-completed (per-task mode skips those too).
+    String MARK_PAST_REMINDERS_NOTIFIED = "UPDATE tasks SET notifiedReminderTime = reminderTime "
+            + "WHERE isDeleted = 0 AND isCompleted = 0 AND reminderTime > 0 AND reminderTime <= :now";
+
+    @Query(MARK_PAST_REMINDERS_NOTIFIED)
+    int markPastRemindersNotified(long now);
+
+    @Query("UPDATE tasks SET notifiedReminderTime = reminderTime WHERE id IN (:ids) AND reminderTime <= :now")
+    int markPastRemindersNotifiedByIds(List<Integer> ids, long now);
+
+    @Transaction
+    default int markPastRemindersNotified(List<Integer> ids, long now) {
+        int changed = 0;
+        for (List<Integer> chunk : chunk(ids)) {
+            changed += markPastRemindersNotifiedByIds(chunk, now);
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the undelivered reminders due by {@code upTo} and marks them
+     * delivered in the same transaction, so each is handed out once.
+     */
+    @Transaction
+    default List<Task> claimDueReminders(long upTo) {
+        List<Task> due = getDueReminders(upTo);
+        List<Integer> ids = new ArrayList<>(due.size());
+        for (Task task : due) {
+            ids.add(task.id);
+        }
+        for (List<Integer> chunk : chunk(ids)) {
+            markRemindersNotified(chunk);
+        }
+        return due;
+    }
+
+    // Moves a repeating task on to its next occurrence. Only the two recurrence
+    // columns are written, and only while the task is active and still at the
+    // occurrence that fired, so a queued user edit is never overwritten.
+    @Query("UPDATE tasks SET reminderTime = :next, repeatAnchor = :repeatAnchor WHERE id = :id "
+            + "AND reminderTime = :previous AND isCompleted = 0 AND isDeleted = 0")
+    int advanceRecurrence(int id, long previous, long next, long repeatAnchor);
+
+    // Boot-time reschedule (RescheduleWorker): active reminders strictly after
+    // the (reminderTime, id) cursor, in index order, one chunk at a time.
+    String REMINDERS_AFTER = "SELECT * FROM tasks WHERE isDeleted = 0 AND isCompleted = 0 AND alarmId != 0 "
+            + "AND reminderTime >= :afterTime AND NOT (reminderTime = :afterTime AND id <= :afterId) "
+            + "ORDER BY reminderTime ASC, id ASC LIMIT :limit";
+
+    @Query(REMINDERS_AFTER)
+    List<Task> getRemindersAfter(long afterTime, int afterId, int limit);
+
+    // Full-text search over active and completed tasks. :match is a MATCH
+    // expression from SearchQuery; rows whose title matches rank above rows
+    // that only match in the description, newest first within each group.
+    @Query("SELECT " + LIST_COLUMNS + " FROM tasks JOIN TaskFts ON tasks.id = TaskFts.docid "
+            + "WHERE TaskFts MATCH :match AND tasks.isDeleted = 0 "
+            + "ORDER BY tasks.id IN (SELECT docid FROM TaskFts WHERE TaskFts MATCH :titleMatch) DESC, "
+            + "tasks.isCompleted ASC, tasks.id DESC")
+    PagingSource<Integer, TaskListItem> searchTasksPaged(String match, String titleMatch);
+
+    // Point lookups for receivers: resolve a single row through the primary key
+    // (or alarmId) instead of materializing the whole table.
+    String TASK_BY_ID = "SELECT * FROM tasks WHERE id = :id LIMIT 1";
+    String TASK_BY_ALARM_ID = "SELECT * FROM tasks WHERE alarmId = :alarmId LIMIT 1";
+    String TASKS_BY_IDS = "SELECT * FROM tasks WHERE id IN (:ids)";
+
+    @Query(TASK_BY_ID)
+    Task getTaskById(int id);
+
+    @Query(TASK_BY_ALARM_ID)
+    Task getTaskByAlarmId(int alarmId);
+
+    @Query(TASKS_BY_IDS)
+    List<Task> getTasksByIds(List<Integer> ids);
+
+    // Full rows for a list selection, e.g. to set or cancel their alarms.
+    @Transaction
+    default List<Task> getTasksAll(List<Integer> ids) {
+        List<Task> tasks = new ArrayList<>(ids.size());
+        for (List<Integer> chunk : chunk(ids)) {
+            tasks.addAll(getTasksByIds(chunk));
+        }
+        return tasks;
+    }
+
     // Recycle Bin Queries
-    @Query("SELECT * FROM tasks WHERE isDeleted = 1 ORDER BY deletedTimestamp DESC")
-    LiveData<List<Task>> getDeletedTasks();
+    String DELETE_ALL_DELETED = "DELETE FROM tasks WHERE isDeleted = 1";
 
-    @Query("DELETE FROM tasks WHERE isDeleted = 1 AND deletedTimestamp < :threshold")
-    void deleteOldTasks(long threshold);
+    @Query(DELETED_TASKS)
+    LiveData<List<TaskListItem>> getDeletedTasks();
 
-    @Query("DELETE FROM tasks WHERE isDeleted = 1")
+    @Query(DELETE_ALL_DELETED)
     void deleteAllDeletedTasks();
 
-    @Query("DELETE FROM tasks WHERE isCompleted = 1 AND completedTimestamp < :threshold")
-    void deleteOldCompletedTasks(long threshold);
+    // Bulk operations (multi-select, undo). Each runs as one transaction; id
+    // lists are split so a statement stays under SQLite's 999-variable limit.
+    int MAX_IDS_PER_STATEMENT = 500;
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long[] insertAll(List<Task> tasks);
+
+    @Update
+    int updateAll(List<Task> tasks);
+
+    @Query("UPDATE tasks SET isDeleted = 1, deletedTimestamp = :timestamp WHERE id IN (:ids)")
+    int softDeleteByIds(List<Integer> ids, long timestamp);
+
+    @Query("UPDATE tasks SET isDeleted = 0, deletedTimestamp = 0 WHERE id IN (:ids)")
+    int restoreByIds(List<Integer> ids);
+
+    @Query("UPDATE tasks SET isCompleted = :completed, completedTimestamp = :timestamp WHERE id IN (:ids)")
+    int setCompletedByIds(List<Integer> ids, boolean completed, long timestamp);
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    int deleteByIds(List<Integer> ids);
+
+    @Transaction
+    default int softDeleteAll(List<Integer> ids, long timestamp) {
+        int changed = 0;
+        for (List<Integer> chunk : chunk(ids)) {
+            changed += softDeleteByIds(chunk, timestamp);
+        }
+        return changed;
+    }
+
+    @Transaction
+    default int restoreAll(List<Integer> ids) {
+        int changed = 0;
+        for (List<Integer> chunk : chunk(ids)) {
+            changed += restoreByIds(chunk);
+        }
+        return changed;
+    }
+
+    @Transaction
+    default int setCompletedAll(List<Integer> ids, boolean completed, long timestamp) {
+        int changed = 0;
+        for (List<Integer> chunk : chunk(ids)) {
+            changed += setCompletedByIds(chunk, completed, timestamp);
+        }
+        return changed;
+    }
+
+    @Transaction
+    default int deleteAll(List<Integer> ids) {
+        int changed = 0;
+        for (List<Integer> chunk : chunk(ids)) {
+            changed += deleteByIds(chunk);
+        }
+        return changed;
+    }
+
+    static List<List<Integer>> chunk(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_STATEMENT) {
+            chunks.add(ids.subList(start, Math.min(ids.size(), start + MAX_IDS_PER_STATEMENT)));
+        }
+        return chunks;
+    }
+
+    // Retention (PurgeWorker). The MIN lookups let it skip the write when
+    // nothing has expired; deletes run in bounded chunks to keep each
+    // transaction short.
+    String OLDEST_DELETED_TIMESTAMP = "SELECT MIN(deletedTimestamp) FROM tasks WHERE isDeleted = 1";
+    String OLDEST_COMPLETED_TIMESTAMP = "SELECT MIN(completedTimestamp) FROM tasks WHERE isCompleted = 1";
+    String DELETE_OLD_TASKS = "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks WHERE isDeleted = 1 "
+            + "AND deletedTimestamp < :threshold LIMIT :limit)";
+    String DELETE_OLD_COMPLETED_TASKS = "DELETE FROM tasks WHERE id IN (SELECT id FROM tasks "
+            + "WHERE isCompleted = 1 AND completedTimestamp < :threshold LIMIT :limit)";
+
+    @Query(OLDEST_DELETED_TIMESTAMP)
+    Long getOldestDeletedTimestamp();
+
+    @Query(OLDEST_COMPLETED_TIMESTAMP)
+    Long getOldestCompletedTimestamp();
+
+    @Query(DELETE_OLD_TASKS)
+    int deleteOldTasks(long threshold, int limit);
+
+    @Query(DELETE_OLD_COMPLETED_TASKS)
+    int deleteOldCompletedTasks(long threshold, int limit);
 }
@@ -0,0 +1,14 @@
+package com.shejan.nextdo;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+
+// Full-text index over tasks.title/description. External content: the text
+// lives only in tasks, and Room keeps this table in sync with triggers (see
+// AppDatabase.MIGRATION_6_7 for upgraded databases). Its docid is tasks.id.
+@Fts4(contentEntity = Task.class)
+@Entity(tableName = "TaskFts")
+public class TaskFts {
+    public String title;
+    public String description;
+}
@@ -6,84 +6,149 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.shejan.nextdo.databinding.RecyclerviewItemBinding;
 
-import java.text.SimpleDateFormat;
+import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
 
-public class TaskListAdapter extends ListAdapter<Task, TaskListAdapter.TaskViewHolder> {
+public class TaskListAdapter extends TaskPagingDataAdapter<TaskListAdapter.TaskViewHolder> {
 
     private final OnTaskInteractionListener listener;
+    // Resolved once per adapter (formatter) or per accent change (tint), never per bind.
+    private final ReminderTextCache reminderText = new ReminderTextCache(Locale.getDefault());
+    private int accentColor;
+    private android.content.res.ColorStateList accentTint;
+    private android.content.res.ColorStateList selectionTint;
+    private final TaskSelection selection = new TaskSelection();
+    // Payload with no TaskChanges bits: the row only re-applies its selection state.
+    private static final Integer SELECTION_ONLY = 0;
+    // Selected cards are tinted with the accent at this alpha.
+    private static final int SELECTION_ALPHA = 96;
 
     public interface OnTaskInteractionListener {
-        void onTaskCompleted(Task task, boolean isCompleted);
+        void onTaskCompleted(TaskListItem task, boolean isCompleted);
 
-        void onTaskClicked(Task task);
+        void onTaskClicked(TaskListItem task);
 
-        void onTaskLongClicked(Task task);
+        void onTaskLongClicked(TaskListItem task);
     }
 
-    public TaskListAdapter(@NonNull DiffUtil.ItemCallback<Task> diffCallback, OnTaskInteractionListener listener) {
+    public TaskListAdapter(@NonNull DiffUtil.ItemCallback<TaskListItem> diffCallback, OnTaskInteractionListener listener) {
         super(diffCallback);
         this.listener = listener;
     }
 
+    /** Re-tints the checkboxes; rows are only rebound if the color actually changed. */
+    public void setAccentColor(int color) {
+        if (accentTint != null && color == accentColor) {
+            return;
+        }
+        accentColor = color;
+        accentTint = android.content.res.ColorStateList.valueOf(color);
+        selectionTint = accentTint.withAlpha(SELECTION_ALPHA);
+        notifyItemRangeChanged(0, getItemCount(), TaskChanges.ACCENT);
+    }
+
+    public TaskSelection getSelection() {
+        return selection;
+    }
+
+    /** Call after changing {@link #getSelection()}; bound rows update their highlight only. */
+    public void notifySelectionChanged() {
+        notifyItemRangeChanged(0, getItemCount(), SELECTION_ONLY);
+    }
+
     @NonNull
     @Override
     public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (accentTint == null) {
+            android.content.SharedPreferences prefs = androidx.preference.PreferenceManager
+                    .getDefaultSharedPreferences(parent.getContext());
+            accentColor = prefs.getInt("accent_color", 0xFF34C759);
+            accentTint = android.content.res.ColorStateList.valueOf(accentColor);
+            selectionTint = accentTint.withAlpha(SELECTION_ALPHA);
+        }
         RecyclerviewItemBinding binding = RecyclerviewItemBinding.inflate(LayoutInflater.from(parent.getContext()),
                 parent, false);
-        return new TaskViewHolder(binding);
+        return new TaskViewHolder(binding, listener);
     }
 
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        Task current = getItem(position);
-        holder.bind(current, listener);
+        TaskListItem current = getItem(position);
+        holder.bind(current, TaskChanges.ALL, reminderText, accentTint, selectionTintFor(current));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        // Payloads queued for the same row between layouts are merged.
+        int changes = 0;
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            changes |= payload instanceof Integer ? (Integer) payload : TaskChanges.ALL;
+        }
+        TaskListItem current = getItem(position);
+        holder.bind(current, changes, reminderText, accentTint, selectionTintFor(current));
+    }
+
+    private android.content.res.ColorStateList selectionTintFor(TaskListItem task) {
+        return task != null && selection.contains(task.id) ? selectionTint : null;
     }
 
-    public Task getTaskAt(int position) {
-        return getItem(position);
+    // peek() reads the loaded item without triggering a page load; null if the
+    // row has been dropped from the resident window.
+    public TaskListItem getTaskAt(int position) {
+        return peek(position);
     }
 
-    public static class TaskDiff extends DiffUtil.ItemCallback<Task> {
+    /** The row's timeline section, or {@link TimelineBuckets#NONE} outside the timeline. */
+    public int getBucket(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            return TimelineBuckets.NONE;
+        }
+        return bucketOf(peek(position));
+    }
+
+    static int bucketOf(TaskListItem task) {
+        return task instanceof TimelineTask ? ((TimelineTask) task).bucket : TimelineBuckets.NONE;
+    }
+
+    public static class TaskDiff extends DiffUtil.ItemCallback<TaskListItem> {
         @Override
-        public boolean areItemsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+        public boolean areItemsTheSame(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
             return oldItem.id == newItem.id;
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
-            return Objects.equals(oldItem.title, newItem.title) &&
-                    Objects.equals(oldItem.description, newItem.description) &&
-                    Objects.equals(oldItem.priority, newItem.priority) &&
-                    oldItem.reminderTime == newItem.reminderTime &&
-                    Objects.equals(oldItem.repeat, newItem.repeat) &&
-                    oldItem.isCompleted == newItem.isCompleted;
+        public boolean areContentsTheSame(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
+            // A section change alone still counts, so the header offsets are re-laid out.
+            return TaskChanges.sameContents(oldItem, newItem) && bucketOf(oldItem) == bucketOf(newItem);
+        }
+
+        // The field bitmask (small enough for Integer's box cache) so the row
+        // re-applies only what changed.
+        @Override
+        public Object getChangePayload(@NonNull TaskListItem oldItem, @NonNull TaskListItem newItem) {
+            return TaskChanges.diff(oldItem, newItem);
         }
     }
 
     public static class TaskViewHolder extends RecyclerView.ViewHolder {
         private final RecyclerviewItemBinding binding;
+        private final android.widget.CompoundButton.OnCheckedChangeListener checkedListener;
+        private TaskListItem task;
+        private android.content.res.ColorStateList appliedTint;
+        private android.content.res.ColorStateList appliedSelectionTint;
 
-        private TaskViewHolder(RecyclerviewItemBinding binding) {
+        private TaskViewHolder(RecyclerviewItemBinding binding, OnTaskInteractionListener listener) {
             super(binding.getRoot());
             this.binding = binding;
-        }
-
-        public void bind(final Task task, final OnTaskInteractionListener listener) {
-            if (task == null)
-                return;
-
-            binding.textTitle.setText(task.title != null ? task.title : "");
-
-            binding.textDescription.setText(task.description != null ? task.description : "");
-            binding.textDescription.setVisibility(
-                    task.description != null && !task.description.isEmpty() ? View.VISIBLE : View.GONE);
 
             // DEFINITIVE FIX: Removing conditional styling for completed tasks.
             android.graphics.drawable.Drawable background = androidx.core.content.ContextCompat
@@ -93,60 +158,85 @@ public class TaskListAdapter extends ListAdapter<Task, TaskListAdapter.TaskViewH
                 binding.getRoot().setBackground(background);
             }
 
-            if (task.priority != null && !task.priority.isEmpty() && !task.priority.equalsIgnoreCase("NONE")) {
-                binding.chipPriority.setText(task.priority);
-                binding.chipPriority.setVisibility(View.VISIBLE);
-            } else {
-                binding.chipPriority.setVisibility(View.GONE);
-            }
-
-            if (task.reminderTime > 0) {
-                try {
-                    SimpleDateFormat sdf = new SimpleDateFormat("MMM d, h:mm a", Locale.getDefault());
-                    binding.textReminder.setText(sdf.format(task.reminderTime));
-                    binding.textReminder.setVisibility(View.VISIBLE);
-                } catch (Exception e) {
-                    binding.textReminder.setVisibility(View.GONE);
-                }
-            } else {
-                binding.textReminder.setVisibility(View.GONE);
-            }
-
-            boolean hasDetails = (task.priority != null && !task.priority.isEmpty()
-                    && !task.priority.equalsIgnoreCase("NONE")) || task.reminderTime > 0;
-            binding.detailsLayout.setVisibility(hasDetails ? View.VISIBLE : View.GONE);
-
-            // Apply accent color to checkbox
-            android.content.SharedPreferences prefs = androidx.preference.PreferenceManager
-                    .getDefaultSharedPreferences(binding.getRoot().getContext());
-            int accentColor = prefs.getInt("accent_color", 0xFF34C759);
-            binding.checkboxCompleted.setButtonTintList(android.content.res.ColorStateList.valueOf(accentColor));
-
-            binding.checkboxCompleted.setOnCheckedChangeListener(null);
-            binding.checkboxCompleted.setChecked(task.isCompleted);
-            binding.checkboxCompleted.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                if (listener != null) {
-                    if (isChecked) {
-                        task.completedTimestamp = System.currentTimeMillis();
-                    } else {
-                        task.completedTimestamp = 0;
-                    }
+            // Listeners are installed once and act on whichever task is bound.
+            checkedListener = (buttonView, isChecked) -> {
+                if (listener != null && task != null) {
                     listener.onTaskCompleted(task, isChecked);
                 }
-            });
+            };
+            binding.checkboxCompleted.setOnCheckedChangeListener(checkedListener);
 
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
+                if (listener != null && task != null) {
                     listener.onTaskClicked(task);
                 }
             });
 
             itemView.setOnLongClickListener(v -> {
-                if (listener != null) {
+                if (listener != null && task != null) {
                     listener.onTaskLongClicked(task);
                 }
                 return true;
             });
         }
+
+        /**
+         * Applies the parts of {@code task} flagged in {@code changes} (TaskChanges
+         * bits). {@code selectionTint} is the card tint when selected, else null.
+         */
+        public void bind(final TaskListItem task, int changes, ReminderTextCache reminderText,
+                android.content.res.ColorStateList accentTint, android.content.res.ColorStateList selectionTint) {
+            this.task = task;
+            if (task == null)
+                return;
+
+            if (selectionTint != appliedSelectionTint) {
+                binding.getRoot().setBackgroundTintList(selectionTint);
+                appliedSelectionTint = selectionTint;
+            }
+
+            if ((changes & TaskChanges.TITLE) != 0) {
+                binding.textTitle.setText(task.title != null ? task.title : "");
+            }
+
+            if ((changes & TaskChanges.DESCRIPTION) != 0) {
+                binding.textDescription.setText(task.description != null ? task.description : "");
+                binding.textDescription.setVisibility(
+                        task.description != null && !task.description.isEmpty() ? View.VISIBLE : View.GONE);
+            }
+
+            if ((changes & (TaskChanges.PRIORITY | TaskChanges.REMINDER)) != 0) {
+                boolean hasPriority = task.priority != null && !task.priority.isEmpty()
+                        && !task.priority.equalsIgnoreCase("NONE");
+                if (hasPriority) {
+                    binding.chipPriority.setText(task.priority);
+                    binding.chipPriority.setVisibility(View.VISIBLE);
+                } else {
+                    binding.chipPriority.setVisibility(View.GONE);
+                }
+
+                if (task.reminderTime > 0) {
+                    binding.textReminder.setText(reminderText.format(task.reminderTime));
+                    binding.textReminder.setVisibility(View.VISIBLE);
+                } else {
+                    binding.textReminder.setVisibility(View.GONE);
+                }
+
+                binding.detailsLayout
+                        .setVisibility(hasPriority || task.reminderTime > 0 ? View.VISIBLE : View.GONE);
+            }
+
+            // Apply accent color to checkbox
+            if ((changes & TaskChanges.ACCENT) != 0 && appliedTint != accentTint) {
+                binding.checkboxCompleted.setButtonTintList(accentTint);
+                appliedTint = accentTint;
+            }
+
+            if ((changes & TaskChanges.COMPLETION) != 0) {
+                binding.checkboxCompleted.setOnCheckedChangeListener(null);
+                binding.checkboxCompleted.setChecked(task.isCompleted);
+                binding.checkboxCompleted.setOnCheckedChangeListener(checkedListener);
+            }
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.shejan.nextdo;
+
+/**
+ * A task row as the list screens load it (TaskDao.LIST_COLUMNS): the
+ * description is cut to a preview and the scheduling bookkeeping
+ * (repeatAnchor, completedTimestamp, notifiedReminderTime) isn't read at all.
+ * Read-only and not an entity, so a list row can't be written back over the
+ * stored task; list actions go through TaskRepository by id, and
+ * NewTaskActivity loads the full row with getTaskById.
+ */
+public class TaskListItem {
+    public final int id;
+    public final String title;
+    public final String description;
+    public final String priority;
+    public final long reminderTime;
+    public final String repeat;
+    public final boolean isCompleted;
+    public final boolean isDeleted;
+    public final int alarmId;
+    public final long deletedTimestamp;
+
+    public TaskListItem(int id, String title, String description, String priority, long reminderTime,
+            String repeat, boolean isCompleted, boolean isDeleted, int alarmId, long deletedTimestamp) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.reminderTime = reminderTime;
+        this.repeat = repeat;
+        this.isCompleted = isCompleted;
+        this.isDeleted = isDeleted;
+        this.alarmId = alarmId;
+        this.deletedTimestamp = deletedTimestamp;
+    }
+}
@@ -0,0 +1,37 @@
+package com.shejan.nextdo;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import kotlinx.coroutines.Dispatchers;
+
+/**
+ * Base of the paged task lists (TaskListAdapter, RecycleBinAdapter). Diffs run
+ * on the shared, bounded DiffExecutors pool rather than Dispatchers.Default.
+ */
+public abstract class TaskPagingDataAdapter<VH extends RecyclerView.ViewHolder>
+        extends PagingDataAdapter<TaskListItem, VH> {
+
+    private PagingData<TaskListItem> submitted;
+
+    protected TaskPagingDataAdapter(@NonNull DiffUtil.ItemCallback<TaskListItem> diffCallback) {
+        super(diffCallback, Dispatchers.getMain(), DiffExecutors.WORKER);
+    }
+
+    /**
+     * submitData, skipping a PagingData that is already being presented (LiveData
+     * re-delivers its latest value to re-attached observers). A new generation
+     * cancels the diff of the previous one.
+     */
+    public void submit(@NonNull Lifecycle lifecycle, @NonNull PagingData<TaskListItem> pagingData) {
+        if (pagingData == submitted) {
+            return;
+        }
+        submitted = pagingData;
+        submitData(lifecycle, pagingData);
+    }
+}
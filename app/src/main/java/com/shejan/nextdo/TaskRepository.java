@@ -4,103 +4,309 @@ import android.app.Application;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import kotlin.jvm.functions.Function1;
+import kotlinx.coroutines.CoroutineScope;
 
 public class TaskRepository {
     private static final String TAG = "TaskRepository";
+    private static final int PAGE_SIZE = 30;
+    // Pages beyond this many rows are dropped as the user scrolls, so only a
+    // window of list rows stays resident no matter how long the list is.
+    private static final int MAX_RESIDENT_ROWS = 200;
+    private static final PagingConfig PAGING_CONFIG = new PagingConfig(PAGE_SIZE, PAGE_SIZE, false,
+            PAGE_SIZE * 2, MAX_RESIDENT_ROWS);
+    private final AppDatabase db;
     private final TaskDao taskDao;
-
-    private final Application application;
+    // All mutations go through the single writer so they apply in call order.
+    private final TaskWriteQueue writeQueue;
+    private final AlarmScheduler alarmScheduler;
 
     TaskRepository(Application application) {
-        this.application = application;
-        AppDatabase db = AppDatabase.getDatabase(application);
+        db = AppDatabase.getDatabase(application);
         taskDao = db.taskDao();
+        writeQueue = TaskWriteQueue.getInstance(application);
+        alarmScheduler = new AlarmScheduler(application);
     }
 
-    LiveData<List<Task>> getActiveTasks() {
+    LiveData<List<TaskListItem>> getActiveTasks() {
         return taskDao.getActiveTasks();
     }
 
-    LiveData<List<Task>> getCompletedTasks() {
+    LiveData<List<TaskListItem>> getCompletedTasks() {
         return taskDao.getCompletedTasks();
     }
 
+    LiveData<TaskStats> getStats() {
+        return taskDao.getStats();
+    }
+
+    LiveData<PagingData<TaskListItem>> getActiveTasksPaged(CoroutineScope scope) {
+        return PagingLiveData.cachedIn(
+                PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG, taskDao::getActiveTasksPaged)), scope);
+    }
+
+    LiveData<PagingData<TaskListItem>> getCompletedTasksPaged(CoroutineScope scope) {
+        return PagingLiveData.cachedIn(
+                PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG, taskDao::getCompletedTasksPaged)), scope);
+    }
+
+    /**
+     * Active tasks by due time with section buckets (TimelinePagingSource).
+     * Boundaries are taken when each PagingSource is created, so every
+     * invalidation or refresh() re-buckets. The rows are TimelineTasks; they are
+     * exposed as TaskListItem so the list can show the timeline and the other
+     * feeds through one adapter.
+     */
+    @SuppressWarnings("unchecked")
+    LiveData<PagingData<TaskListItem>> getTimelinePaged(CoroutineScope scope) {
+        LiveData<PagingData<TimelineTask>> timeline = PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG, () -> {
+            TimelineBuckets buckets = TimelineBuckets.now();
+            return new TimelinePagingSource(db, System.currentTimeMillis(), buckets.tomorrowStart,
+                    buckets.dayAfterStart, buckets.weekEnd);
+        }));
+        return PagingLiveData.cachedIn((LiveData<PagingData<TaskListItem>>) (LiveData<?>) timeline, scope);
+    }
+
+    /**
+     * Search results for each value of {@code query}. A new query replaces the
+     * previous Pager, so its pending loads are cancelled and stale pages never
+     * reach the adapter.
+     */
+    LiveData<PagingData<TaskListItem>> searchTasksPaged(LiveData<String> query, CoroutineScope scope) {
+        Function1<String, LiveData<PagingData<TaskListItem>>> search = input -> {
+            String match = SearchQuery.toMatch(input);
+            if (match == null) {
+                return new MutableLiveData<>(PagingData.empty());
+            }
+            String titleMatch = SearchQuery.toMatch(input, "title");
+            return PagingLiveData.getLiveData(
+                    new Pager<>(PAGING_CONFIG, () -> taskDao.searchTasksPaged(match, titleMatch)));
+        };
+        return PagingLiveData.cachedIn(Transformations.switchMap(query, search), scope);
+    }
+
+    LiveData<PagingData<TaskListItem>> getDeletedTasksPaged(CoroutineScope scope) {
+        return PagingLiveData.cachedIn(
+                PagingLiveData.getLiveData(new Pager<>(PAGING_CONFIG, taskDao::getDeletedTasksPaged)), scope);
+    }
+
     void insert(Task task) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            taskDao.insert(task);
-            UpcomingTasksWidgetProvider.sendRefreshBroadcast(application);
-        });
+        writeQueue.insert(task, null);
     }
 
     void insert(Task task, Runnable onComplete) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            Log.d(TAG, "Inserting task: " + task.title);
-            long newId = taskDao.insert(task);
-            task.id = (int) newId;
-            Log.d(TAG, "Insert complete for task: " + task.title + " (assigned id=" + newId + ")");
-            if (onComplete != null) {
-                onComplete.run();
-            }
-            UpcomingTasksWidgetProvider.sendRefreshBroadcast(application);
-        });
+        Log.d(TAG, "Queueing insert for task: " + task.title);
+        writeQueue.insert(task, onComplete);
     }
 
     void update(Task task) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            taskDao.update(task);
-            UpcomingTasksWidgetProvider.sendRefreshBroadcast(application);
-        });
+        writeQueue.update(task, null);
     }
 
     void update(Task task, Runnable onComplete) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            Log.d(TAG, "Updating task: " + task.title);
-            taskDao.update(task);
-            Log.d(TAG, "Update complete for task: " + task.title);
-            if (onComplete != null) {
-                onComplete.run();
+        Log.d(TAG, "Queueing update for task: " + task.title);
+        writeQueue.update(task, onComplete);
+    }
+
+    /**
+     * Saves {@code edited} from NewTaskActivity over the stored row. The editor
+     * only returns the fields it shows, so completion, the notified marker and
+     * the recurrence anchor are copied over from the stored row in the same
+     * write. The anchor is kept unless the reminder time or the repeat rule
+     * changed; then the series restarts at the new reminder.
+     */
+    void updateEdited(Task edited, Runnable onComplete) {
+        Log.d(TAG, "Queueing edit for task: " + edited.title);
+        writeQueue.execute(dao -> {
+            Task stored = dao.getTaskById(edited.id);
+            if (stored == null) {
+                return;
             }
-            UpcomingTasksWidgetProvider.sendRefreshBroadcast(application);
-        });
+            edited.isCompleted = stored.isCompleted;
+            edited.completedTimestamp = stored.completedTimestamp;
+            edited.isDeleted = stored.isDeleted;
+            edited.deletedTimestamp = stored.deletedTimestamp;
+            edited.notifiedReminderTime = stored.notifiedReminderTime;
+            boolean rescheduled = edited.reminderTime != stored.reminderTime
+                    || !Objects.equals(RecurrenceRule.parse(edited.repeat), RecurrenceRule.parse(stored.repeat));
+            edited.repeatAnchor = rescheduled ? 0 : stored.repeatAnchor;
+            dao.update(edited);
+        }, true, onComplete);
     }
 
-    void delete(Task task) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            taskDao.delete(task);
-            UpcomingTasksWidgetProvider.sendRefreshBroadcast(application);
+    /**
+     * Deletes the task with id {@code taskId} and passes the stored row, as it
+     * was just before the delete, to {@code onDeleted} on the writer thread, so
+     * an Undo can re-insert it whole. {@code onDeleted} isn't called if the row
+     * was already gone.
+     */
+    void delete(int taskId, Consumer<Task> onDeleted) {
+        AtomicReference<Task> deleted = new AtomicReference<>();
+        writeQueue.execute(dao -> {
+            Task stored = dao.getTaskById(taskId);
+            if (stored != null) {
+                dao.delete(stored);
+                deleted.set(stored);
+            }
+        }, true, () -> {
+            Task stored = deleted.get();
+            if (stored != null && onDeleted != null) {
+                onDeleted.accept(stored);
+            }
         });
     }
 
-    public LiveData<List<Task>> getDeletedTasks() {
+    public LiveData<List<TaskListItem>> getDeletedTasks() {
         return taskDao.getDeletedTasks();
     }
 
-    public void deleteOldTasks(long threshold) {
-        AppDatabase.databaseWriteExecutor.execute(() -> taskDao.deleteOldTasks(threshold));
+    public void deleteAllDeletedTasks() {
+        writeQueue.execute(TaskDao::deleteAllDeletedTasks, false, null);
     }
 
-    public void deleteAllDeletedTasks() {
-        AppDatabase.databaseWriteExecutor.execute(taskDao::deleteAllDeletedTasks);
+    // Single-task actions from the lists go through the id-based bulk
+    // statements; list rows are read-only previews (TaskListItem).
+
+    public void deletePermanently(TaskListItem task) {
+        deletePermanentlyAll(Collections.singletonList(task), null);
+    }
+
+    public void softDelete(TaskListItem task) {
+        softDeleteAll(Collections.singletonList(task), null);
+    }
+
+    public void restore(TaskListItem task) {
+        restoreAll(Collections.singletonList(task), null);
+    }
+
+    public void setCompleted(TaskListItem task, boolean completed) {
+        setCompletedAll(Collections.singletonList(task), completed, null);
     }
 
-    public void deletePermanently(Task task) {
-        AppDatabase.databaseWriteExecutor.execute(() -> taskDao.delete(task));
+    // Bulk operations. Each is one queued write, so one transaction, one Room
+    // invalidation and at most one widget refresh however many tasks it
+    // covers; alarms are updated in a single pass after the commit, from the
+    // stored rows read back in the same write. onComplete runs on the writer
+    // thread.
+
+    /** Inserts all tasks; their generated ids are set before alarms are scheduled. */
+    public void insertAll(List<Task> tasks, Runnable onComplete) {
+        writeQueue.execute(dao -> {
+            long[] ids = dao.insertAll(tasks);
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] > 0) {
+                    tasks.get(i).id = (int) ids[i];
+                }
+            }
+        }, true, () -> {
+            alarmScheduler.scheduleAll(tasks);
+            runCallback(onComplete);
+        });
     }
 
-    public void softDelete(Task task) {
-        task.isDeleted = true;
-        task.deletedTimestamp = System.currentTimeMillis();
-        update(task);
+    /** Writes whole rows; {@code tasks} must be full rows, not list previews. */
+    public void updateAll(List<Task> tasks, Runnable onComplete) {
+        writeQueue.execute(dao -> dao.updateAll(tasks), true, onComplete);
     }
 
-    public void restore(Task task) {
-        task.isDeleted = false;
-        task.deletedTimestamp = 0;
-        update(task);
+    public void softDeleteAll(List<TaskListItem> tasks, Runnable onComplete) {
+        List<Integer> ids = idsOf(tasks);
+        long now = System.currentTimeMillis();
+        AtomicReference<List<Task>> stored = new AtomicReference<>(Collections.emptyList());
+        writeQueue.execute(dao -> {
+            dao.softDeleteAll(ids, now);
+            stored.set(dao.getTasksAll(ids));
+        }, true, () -> {
+            alarmScheduler.cancelAll(stored.get());
+            runCallback(onComplete);
+        });
+    }
+
+    public void restoreAll(List<TaskListItem> tasks, Runnable onComplete) {
+        List<Integer> ids = idsOf(tasks);
+        long now = System.currentTimeMillis();
+        AtomicReference<List<Task>> stored = new AtomicReference<>(Collections.emptyList());
+        writeQueue.execute(dao -> {
+            dao.restoreAll(ids);
+            // Reminders that passed while in the bin don't fire late (scheduleAll).
+            dao.markPastRemindersNotified(ids, now);
+            stored.set(dao.getTasksAll(ids));
+        }, true, () -> {
+            alarmScheduler.scheduleAll(activeOnly(stored.get()));
+            runCallback(onComplete);
+        });
+    }
+
+    public void setCompletedAll(List<TaskListItem> tasks, boolean completed, Runnable onComplete) {
+        List<Integer> ids = idsOf(tasks);
+        long now = System.currentTimeMillis();
+        long timestamp = completed ? now : 0;
+        AtomicReference<List<Task>> stored = new AtomicReference<>(Collections.emptyList());
+        writeQueue.execute(dao -> {
+            dao.setCompletedAll(ids, completed, timestamp);
+            if (!completed) {
+                dao.markPastRemindersNotified(ids, now);
+            }
+            stored.set(dao.getTasksAll(ids));
+        }, true, () -> {
+            if (completed) {
+                alarmScheduler.cancelAll(stored.get());
+            } else {
+                alarmScheduler.scheduleAll(activeOnly(stored.get()));
+            }
+            runCallback(onComplete);
+        });
+    }
+
+    public void deletePermanentlyAll(List<TaskListItem> tasks, Runnable onComplete) {
+        List<Integer> ids = idsOf(tasks);
+        AtomicReference<List<Task>> stored = new AtomicReference<>(Collections.emptyList());
+        writeQueue.execute(dao -> {
+            stored.set(dao.getTasksAll(ids));
+            dao.deleteAll(ids);
+        }, true, () -> {
+            alarmScheduler.cancelAll(stored.get());
+            runCallback(onComplete);
+        });
+    }
+
+    private static List<Integer> idsOf(List<TaskListItem> tasks) {
+        List<Integer> ids = new ArrayList<>(tasks.size());
+        for (TaskListItem task : tasks) {
+            ids.add(task.id);
+        }
+        return ids;
+    }
+
+    // Restored tasks that are still completed (or un-completed ones still in
+    // the recycle bin) must not ring.
+    private static List<Task> activeOnly(List<Task> tasks) {
+        List<Task> active = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (!task.isDeleted && !task.isCompleted) {
+                active.add(task);
+            }
+        }
+        return active;
     }
 
-    public void deleteOldCompletedTasks(long threshold) {
-        AppDatabase.databaseWriteExecutor.execute(() -> taskDao.deleteOldCompletedTasks(threshold));
+    private static void runCallback(Runnable onComplete) {
+        if (onComplete != null) {
+            onComplete.run();
+        }
     }
 }
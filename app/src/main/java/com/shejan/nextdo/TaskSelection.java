@@ -0,0 +1,44 @@
+package com.shejan.nextdo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-select state for a task list, keyed by task id so it survives paging
+ * reloads. Holds the list rows last seen; bulk actions only need their ids.
+ */
+public final class TaskSelection {
+    private final Map<Integer, TaskListItem> selected = new LinkedHashMap<>();
+
+    public boolean isEmpty() {
+        return selected.isEmpty();
+    }
+
+    public int size() {
+        return selected.size();
+    }
+
+    public boolean contains(int taskId) {
+        return selected.containsKey(taskId);
+    }
+
+    /** Adds or removes {@code task}; returns whether it is now selected. */
+    public boolean toggle(TaskListItem task) {
+        if (selected.remove(task.id) != null) {
+            return false;
+        }
+        selected.put(task.id, task);
+        return true;
+    }
+
+    /** Selected tasks in the order they were picked. */
+    public List<TaskListItem> getTasks() {
+        return new ArrayList<>(selected.values());
+    }
+
+    public void clear() {
+        selected.clear();
+    }
+}
@@ -0,0 +1,54 @@
+package com.shejan.nextdo;
+
+import androidx.annotation.NonNull;
+
+/**
+ * One-row summary of the tasks table from TaskDao.getStats. Counts are computed
+ * in SQL so screens that only need numbers never load task rows. Priority
+ * totals cover active tasks.
+ */
+public class TaskStats {
+    public int active;
+    public int completed;
+    public int deleted;
+    public int overdue;
+    public int highPriority;
+    public int mediumPriority;
+    public int lowPriority;
+
+    // Room re-runs the query on every table change; equal rows are dropped by
+    // distinctUntilChanged in TaskViewModel so observers only see real changes.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskStats)) {
+            return false;
+        }
+        TaskStats other = (TaskStats) o;
+        return active == other.active && completed == other.completed && deleted == other.deleted
+                && overdue == other.overdue && highPriority == other.highPriority
+                && mediumPriority == other.mediumPriority && lowPriority == other.lowPriority;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = active;
+        result = 31 * result + completed;
+        result = 31 * result + deleted;
+        result = 31 * result + overdue;
+        result = 31 * result + highPriority;
+        result = 31 * result + mediumPriority;
+        result = 31 * result + lowPriority;
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "TaskStats{active=" + active + ", completed=" + completed + ", deleted=" + deleted
+                + ", overdue=" + overdue + ", high=" + highPriority + ", medium=" + mediumPriority
+                + ", low=" + lowPriority + "}";
+    }
+}
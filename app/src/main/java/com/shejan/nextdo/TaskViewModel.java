@@ -1,27 +1,149 @@
 package com.shejan.nextdo;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+
 import java.util.List;
+import java.util.function.Consumer;
 
 public class TaskViewModel extends AndroidViewModel {
+    // Typing faster than this only runs the query for the last keystroke.
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
     private final TaskRepository repository;
 
+    // Created on first use; each screen only observes one of these streams.
+    private LiveData<PagingData<TaskListItem>> activeTasksPaged;
+    private LiveData<PagingData<TaskListItem>> timelinePaged;
+    private LiveData<PagingData<TaskListItem>> completedTasksPaged;
+    private LiveData<PagingData<TaskListItem>> deletedTasksPaged;
+    private LiveData<PagingData<TaskListItem>> searchResultsPaged;
+    private LiveData<TaskStats> stats;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Normalized search terms ("" when not searching), applied after the debounce.
+    private final MutableLiveData<String> searchQuery = new MutableLiveData<>("");
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private String pendingSearch = "";
+    private final Runnable applySearch = () -> searchQuery.setValue(pendingSearch);
+    private final LiveData<String> appliedSearch = Transformations.distinctUntilChanged(searchQuery);
+
     public TaskViewModel(@NonNull Application application) {
         super(application);
         repository = new TaskRepository(application);
     }
 
-    public LiveData<List<Task>> getActiveTasks() {
+    public LiveData<List<TaskListItem>> getActiveTasks() {
         return repository.getActiveTasks();
     }
 
-    public LiveData<List<Task>> getCompletedTasks() {
+    public LiveData<List<TaskListItem>> getCompletedTasks() {
         return repository.getCompletedTasks();
     }
 
+    /**
+     * Task counts, shared by every observer of this ViewModel. Room re-queries on
+     * table changes only, and unchanged rows are not re-delivered.
+     */
+    public LiveData<TaskStats> getStats() {
+        if (stats == null) {
+            stats = Transformations.distinctUntilChanged(repository.getStats());
+        }
+        return stats;
+    }
+
+    public LiveData<PagingData<TaskListItem>> getActiveTasksPaged() {
+        if (activeTasksPaged == null) {
+            activeTasksPaged = repository.getActiveTasksPaged(ViewModelKt.getViewModelScope(this));
+        }
+        return activeTasksPaged;
+    }
+
+    public LiveData<PagingData<TaskListItem>> getTimelinePaged() {
+        if (timelinePaged == null) {
+            timelinePaged = repository.getTimelinePaged(ViewModelKt.getViewModelScope(this));
+        }
+        return timelinePaged;
+    }
+
+    public LiveData<PagingData<TaskListItem>> getCompletedTasksPaged() {
+        if (completedTasksPaged == null) {
+            completedTasksPaged = repository.getCompletedTasksPaged(ViewModelKt.getViewModelScope(this));
+        }
+        return completedTasksPaged;
+    }
+
+    public LiveData<PagingData<TaskListItem>> getDeletedTasksPaged() {
+        if (deletedTasksPaged == null) {
+            deletedTasksPaged = repository.getDeletedTasksPaged(ViewModelKt.getViewModelScope(this));
+        }
+        return deletedTasksPaged;
+    }
+
+    public LiveData<PagingData<TaskListItem>> getSearchResultsPaged() {
+        if (searchResultsPaged == null) {
+            searchResultsPaged = repository.searchTasksPaged(appliedSearch, ViewModelKt.getViewModelScope(this));
+        }
+        return searchResultsPaged;
+    }
+
+    /** The search terms in effect, once the debounce has passed; "" when not searching. */
+    public LiveData<String> getSearchQuery() {
+        return appliedSearch;
+    }
+
+    /**
+     * Updates the search text. The query runs once typing pauses for
+     * {@link #SEARCH_DEBOUNCE_MS}; clearing the search applies immediately.
+     */
+    public void setSearchQuery(String text) {
+        pendingSearch = String.join(" ", SearchQuery.tokenize(text));
+        searchHandler.removeCallbacks(applySearch);
+        if (pendingSearch.isEmpty()) {
+            applySearch.run();
+        } else {
+            searchHandler.postDelayed(applySearch, SEARCH_DEBOUNCE_MS);
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        searchHandler.removeCallbacks(applySearch);
+        super.onCleared();
+    }
+
+    public void insertAll(List<Task> tasks) {
+        repository.insertAll(tasks, null);
+    }
+
+    public void updateAll(List<Task> tasks) {
+        repository.updateAll(tasks, null);
+    }
+
+    public void softDeleteAll(List<TaskListItem> tasks) {
+        repository.softDeleteAll(tasks, null);
+    }
+
+    public void restoreAll(List<TaskListItem> tasks) {
+        repository.restoreAll(tasks, null);
+    }
+
+    public void setCompletedAll(List<TaskListItem> tasks, boolean completed) {
+        repository.setCompletedAll(tasks, completed, null);
+    }
+
+    public void deletePermanentlyAll(List<TaskListItem> tasks) {
+        repository.deletePermanentlyAll(tasks, null);
+    }
+
     public void insert(Task task) {
         repository.insert(task);
     }
@@ -38,35 +160,41 @@ public class TaskViewModel extends AndroidViewModel {
         repository.update(task, onComplete);
     }
 
-    public void delete(Task task) {
-        repository.delete(task);
+    /** Saves an edited task over the stored row (see TaskRepository.updateEdited). */
+    public void updateEdited(Task task, Runnable onComplete) {
+        repository.updateEdited(task, onComplete);
     }
 
-    public LiveData<List<Task>> getDeletedTasks() {
-        return repository.getDeletedTasks();
+    public void delete(int taskId) {
+        repository.delete(taskId, null);
+    }
+
+    /** Deletes task {@code taskId} and passes the full stored row to {@code onDeleted} on the main thread, for Undo. */
+    public void delete(int taskId, Consumer<Task> onDeleted) {
+        repository.delete(taskId, stored -> mainHandler.post(() -> onDeleted.accept(stored)));
     }
 
-    public void deleteOldTasks(long threshold) {
-        repository.deleteOldTasks(threshold);
+    public LiveData<List<TaskListItem>> getDeletedTasks() {
+        return repository.getDeletedTasks();
     }
 
     public void deleteAllDeletedTasks() {
         repository.deleteAllDeletedTasks();
     }
 
-    public void deletePermanently(Task task) {
+    public void deletePermanently(TaskListItem task) {
         repository.deletePermanently(task);
     }
 
-    public void softDelete(Task task) {
+    public void softDelete(TaskListItem task) {
         repository.softDelete(task);
     }
 
-    public void restore(Task task) {
+    public void restore(TaskListItem task) {
         repository.restore(task);
     }
 
-    public void deleteOldCompletedTasks(long threshold) {
-        repository.deleteOldCompletedTasks(threshold);
+    public void setCompleted(TaskListItem task, boolean completed) {
+        repository.setCompleted(task, completed);
     }
 }
@@ -0,0 +1,267 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Single-writer pipeline for task mutations.
+ *
+ * SQLite only has one writer, so instead of letting a thread pool contend for
+ * the lock, every mutation is queued here and applied by one thread. Whatever
+ * has queued up by the time the writer gets to it is applied in a single
+ * transaction, with repeated updates of the same task collapsed into the last
+ * one. Writes are applied in submission order; completion callbacks run on the
+ * writer thread after the transaction commits, and only for writes that
+ * committed. A write that failed gets its failure callback instead.
+ */
+public final class TaskWriteQueue {
+    private static final String TAG = "TaskWriteQueue";
+
+    static final int KIND_INSERT = 0;
+    static final int KIND_UPDATE = 1;
+    static final int KIND_DELETE = 2;
+    /** Any other statement (bulk deletes etc.); nothing is coalesced across it. */
+    static final int KIND_BARRIER = 3;
+
+    interface Action {
+        void run(TaskDao taskDao);
+    }
+
+    static final class Write {
+        final int kind;
+        final Task task;
+        final Action action;
+        final Runnable onComplete;
+        final Consumer<Exception> onFailure;
+        // Only meaningful for barriers; task writes are checked against the widget.
+        final boolean affectsUpcoming;
+        boolean superseded;
+        // The later update that replaced this one; its outcome is this write's outcome.
+        Write supersededBy;
+        Exception failure;
+
+        Write(int kind, Task task, Action action, Runnable onComplete) {
+            this(kind, task, action, true, onComplete, null);
+        }
+
+        Write(int kind, Task task, Action action, boolean affectsUpcoming, Runnable onComplete,
+                Consumer<Exception> onFailure) {
+            this.kind = kind;
+            this.task = task;
+            this.action = action;
+            this.affectsUpcoming = affectsUpcoming;
+            this.onComplete = onComplete;
+            this.onFailure = onFailure;
+        }
+
+        /** Null if the write (or the update that superseded it) committed. */
+        Exception outcome() {
+            Write last = this;
+            while (last.supersededBy != null) {
+                last = last.supersededBy;
+            }
+            return last.failure;
+        }
+    }
+
+    private static volatile TaskWriteQueue INSTANCE;
+
+    private final Context context;
+    private final AppDatabase database;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "task-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object lock = new Object();
+    private List<Write> pending = new ArrayList<>();
+    private boolean drainScheduled;
+
+    private TaskWriteQueue(Context context) {
+        this(context, AppDatabase.getDatabase(context.getApplicationContext()));
+    }
+
+    // Tests drain a queue of their own against an in-memory database.
+    TaskWriteQueue(Context context, AppDatabase database) {
+        this.context = context.getApplicationContext();
+        this.database = database;
+    }
+
+    public static TaskWriteQueue getInstance(final Context context) {
+        if (INSTANCE == null) {
+            synchronized (TaskWriteQueue.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TaskWriteQueue(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public void insert(Task task, Runnable onComplete) {
+        // A batch that rolls back has already set the generated id; the retry
+        // must insert with the id the caller asked for again.
+        int requestedId = task.id;
+        enqueue(new Write(KIND_INSERT, task, dao -> {
+            task.id = requestedId;
+            long id = dao.insert(task);
+            if (id <= 0) {
+                // OnConflictStrategy.IGNORE: nothing was written.
+                throw new IllegalStateException("Insert of task " + requestedId + " was ignored");
+            }
+            task.id = (int) id;
+        }, onComplete));
+    }
+
+    public void update(Task task, Runnable onComplete) {
+        enqueue(new Write(KIND_UPDATE, task, dao -> dao.update(task), onComplete));
+    }
+
+    public void delete(Task task, Runnable onComplete) {
+        enqueue(new Write(KIND_DELETE, task, dao -> dao.delete(task), onComplete));
+    }
+
+    /**
+     * Runs an arbitrary write in order with the others. Pass false for
+     * {@code affectsUpcoming} when the statement can't touch active tasks with a
+     * reminder (e.g. purging the recycle bin) so the widget isn't reloaded.
+     */
+    public void execute(Action action, boolean affectsUpcoming, Runnable onComplete) {
+        execute(action, affectsUpcoming, onComplete, null);
+    }
+
+    /**
+     * Like {@link #execute(Action, boolean, Runnable)}, but a write that fails
+     * passes its exception to {@code onFailure} (on the writer thread) instead
+     * of skipping its callback silently. Callers that wait for the write must
+     * use this form.
+     */
+    public void execute(Action action, boolean affectsUpcoming, Runnable onComplete,
+            Consumer<Exception> onFailure) {
+        enqueue(new Write(KIND_BARRIER, null, action, affectsUpcoming, onComplete, onFailure));
+    }
+
+    private void enqueue(Write write) {
+        synchronized (lock) {
+            pending.add(write);
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        writer.execute(this::drain);
+    }
+
+    private void drain() {
+        List<Write> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            drainScheduled = false;
+        }
+
+        int applied = coalesce(batch);
+        TaskDao taskDao = database.taskDao();
+        try {
+            database.runInTransaction(() -> {
+                for (Write write : batch) {
+                    if (!write.superseded) {
+                        write.action.run(taskDao);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // One bad write must not take the rest of the batch down with it.
+            Log.e(TAG, "Batch of " + applied + " writes failed, retrying one by one: " + e.getMessage(), e);
+            for (Write write : batch) {
+                if (write.superseded) {
+                    continue;
+                }
+                try {
+                    database.runInTransaction(() -> write.action.run(taskDao));
+                } catch (Exception writeError) {
+                    Log.e(TAG, "Write failed: " + writeError.getMessage(), writeError);
+                    write.failure = writeError;
+                    applied--;
+                }
+            }
+        }
+        Log.d(TAG, "Applied " + applied + " of " + batch.size() + " queued writes");
+
+        for (Write write : batch) {
+            Exception failure = write.outcome();
+            try {
+                if (failure == null) {
+                    if (write.onComplete != null) {
+                        write.onComplete.run();
+                    }
+                } else if (write.onFailure != null) {
+                    write.onFailure.accept(failure);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in write callback: " + e.getMessage(), e);
+            }
+        }
+        notifyWidget(batch);
+    }
+
+    private void notifyWidget(List<Write> batch) {
+        for (Write write : batch) {
+            if (write.superseded || write.failure != null) {
+                continue;
+            }
+            if (write.kind == KIND_BARRIER) {
+                if (write.affectsUpcoming) {
+                    WidgetRefreshScheduler.requestRefresh(context);
+                }
+            } else if (write.kind == KIND_DELETE) {
+                WidgetRefreshScheduler.onTaskRemoved(context, write.task);
+            } else {
+                WidgetRefreshScheduler.onTaskChanged(context, write.task);
+            }
+        }
+    }
+
+    /**
+     * Marks updates that a later update of the same task makes redundant (Room's
+     * update writes the whole row, so the last one wins). Inserts and deletes of
+     * a task, and barriers, end the coalescing window. Returns the number of
+     * writes left to apply.
+     */
+    static int coalesce(List<Write> batch) {
+        Map<Integer, Write> lastUpdate = new HashMap<>();
+        int applied = batch.size();
+        for (Write write : batch) {
+            switch (write.kind) {
+                case KIND_UPDATE:
+                    if (write.task.id == 0) {
+                        // Not inserted yet; its id is only known after the insert runs.
+                        break;
+                    }
+                    Write previous = lastUpdate.put(write.task.id, write);
+                    if (previous != null) {
+                        previous.superseded = true;
+                        previous.supersededBy = write;
+                        applied--;
+                    }
+                    break;
+                case KIND_INSERT:
+                case KIND_DELETE:
+                    lastUpdate.remove(write.task.id);
+                    break;
+                default:
+                    lastUpdate.clear();
+                    break;
+            }
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,96 @@
+package com.shejan.nextdo;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Due-time sections of the timeline list (TimelinePagingSource). The bucket
+ * of each row is computed in SQL from the boundaries below, so the list only
+ * has to compare neighbouring rows to place a header.
+ */
+public final class TimelineBuckets {
+    /** Row isn't from the timeline query (or isn't loaded); no header. */
+    public static final int NONE = -1;
+    public static final int OVERDUE = 0;
+    public static final int TODAY = 1;
+    public static final int TOMORROW = 2;
+    public static final int THIS_WEEK = 3;
+    public static final int LATER = 4;
+    public static final int NO_REMINDER = 5;
+
+    /** Start of tomorrow, of the day after, and of next week, all local time. */
+    final long tomorrowStart;
+    final long dayAfterStart;
+    final long weekEnd;
+
+    private TimelineBuckets(long tomorrowStart, long dayAfterStart, long weekEnd) {
+        this.tomorrowStart = tomorrowStart;
+        this.dayAfterStart = dayAfterStart;
+        this.weekEnd = weekEnd;
+    }
+
+    /**
+     * Boundaries for {@code now} in {@code zone}; the week ends before the next
+     * {@code firstDayOfWeek} (a {@link Calendar} day constant).
+     */
+    static TimelineBuckets at(long now, TimeZone zone, int firstDayOfWeek) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        long tomorrowStart = calendar.getTimeInMillis();
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        long dayAfterStart = calendar.getTimeInMillis();
+
+        // Walk forward from tomorrow to the next first day of the week.
+        calendar.setTimeInMillis(tomorrowStart);
+        while (calendar.get(Calendar.DAY_OF_WEEK) != firstDayOfWeek) {
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        // On the last day of a week "this week" is empty rather than overlapping tomorrow.
+        long weekEnd = Math.max(calendar.getTimeInMillis(), dayAfterStart);
+        return new TimelineBuckets(tomorrowStart, dayAfterStart, weekEnd);
+    }
+
+    static TimelineBuckets now() {
+        return at(System.currentTimeMillis(), TimeZone.getDefault(),
+                Calendar.getInstance().getFirstDayOfWeek());
+    }
+
+    /** Java mirror of TaskDao.TIMELINE_BUCKET; used by tests. */
+    int bucketOf(long reminderTime, long now) {
+        if (reminderTime <= 0) {
+            return NO_REMINDER;
+        } else if (reminderTime < now) {
+            return OVERDUE;
+        } else if (reminderTime < tomorrowStart) {
+            return TODAY;
+        } else if (reminderTime < dayAfterStart) {
+            return TOMORROW;
+        } else if (reminderTime < weekEnd) {
+            return THIS_WEEK;
+        }
+        return LATER;
+    }
+
+    static int labelRes(int bucket) {
+        switch (bucket) {
+            case OVERDUE:
+                return R.string.timeline_overdue;
+            case TODAY:
+                return R.string.timeline_today;
+            case TOMORROW:
+                return R.string.timeline_tomorrow;
+            case THIS_WEEK:
+                return R.string.timeline_this_week;
+            case LATER:
+                return R.string.timeline_later;
+            default:
+                return R.string.timeline_no_reminder;
+        }
+    }
+}
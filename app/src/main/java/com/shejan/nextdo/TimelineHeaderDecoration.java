@@ -0,0 +1,126 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Section headers for the timeline list. Room already tagged each row with its
+ * bucket, so a row gets a header when its bucket differs from the row above,
+ * and the current section's header sticks to the top until the next one pushes
+ * it out. Rows from other adapters (search) have no bucket and no header.
+ */
+public class TimelineHeaderDecoration extends RecyclerView.ItemDecoration {
+    private final int headerHeight;
+    private final float cornerRadius;
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final String[] labels = new String[TimelineBuckets.NO_REMINDER + 1];
+    private final RectF pill = new RectF();
+
+    public TimelineHeaderDecoration(Context context) {
+        float density = context.getResources().getDisplayMetrics().density;
+        headerHeight = (int) (36 * density);
+        cornerRadius = 12 * density;
+
+        textPaint.setTextSize(13 * context.getResources().getDisplayMetrics().scaledDensity);
+        textPaint.setFakeBoldText(true);
+        textPaint.setLetterSpacing(0.08f);
+        textPaint.setColor(com.google.android.material.color.MaterialColors.getColor(context,
+                com.google.android.material.R.attr.colorOnSurface, android.graphics.Color.WHITE));
+        backgroundPaint.setColor(com.google.android.material.color.MaterialColors.getColor(context,
+                com.google.android.material.R.attr.colorSurface, android.graphics.Color.BLACK));
+        backgroundPaint.setAlpha(200);
+
+        // Resolved once; drawing happens every frame while scrolling.
+        for (int bucket = 0; bucket < labels.length; bucket++) {
+            labels[bucket] = context.getString(TimelineBuckets.labelRes(bucket))
+                    .toUpperCase(java.util.Locale.getDefault());
+        }
+    }
+
+    @Override
+    public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull RecyclerView parent,
+            @NonNull RecyclerView.State state) {
+        int position = parent.getChildAdapterPosition(view);
+        if (position != RecyclerView.NO_POSITION && startsSection(parent, position)) {
+            outRect.top = headerHeight;
+        }
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        int childCount = parent.getChildCount();
+        if (childCount == 0) {
+            return;
+        }
+        RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (layoutManager == null) {
+            return;
+        }
+        int left = parent.getPaddingLeft();
+        int stickyTop = parent.getPaddingTop();
+
+        // Headers of sections that start further down.
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION || !startsSection(parent, position)) {
+                continue;
+            }
+            int top = layoutManager.getDecoratedTop(child) + (int) child.getTranslationY();
+            if (top > stickyTop) {
+                drawHeader(canvas, left, top, bucketAt(parent, position));
+            }
+        }
+
+        // The sticky header for the section at the top, pushed up by the next one.
+        View first = parent.getChildAt(0);
+        int firstPosition = parent.getChildAdapterPosition(first);
+        int bucket = firstPosition == RecyclerView.NO_POSITION ? TimelineBuckets.NONE
+                : bucketAt(parent, firstPosition);
+        if (bucket == TimelineBuckets.NONE) {
+            return;
+        }
+        int top = stickyTop;
+        for (int i = 1; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION && startsSection(parent, position)) {
+                int nextTop = layoutManager.getDecoratedTop(child) + (int) child.getTranslationY();
+                top = Math.min(stickyTop, nextTop - headerHeight);
+                break;
+            }
+        }
+        drawHeader(canvas, left, top, bucket);
+    }
+
+    private void drawHeader(Canvas canvas, int left, int top, int bucket) {
+        String label = labels[bucket];
+        float padding = cornerRadius;
+        float width = textPaint.measureText(label) + padding * 2;
+        float pillTop = top + headerHeight * 0.15f;
+        float pillBottom = top + headerHeight * 0.85f;
+        pill.set(left, pillTop, left + width, pillBottom);
+        canvas.drawRoundRect(pill, cornerRadius, cornerRadius, backgroundPaint);
+        float baseline = (pillTop + pillBottom) / 2 - (textPaint.descent() + textPaint.ascent()) / 2;
+        canvas.drawText(label, left + padding, baseline, textPaint);
+    }
+
+    private static boolean startsSection(RecyclerView parent, int position) {
+        int bucket = bucketAt(parent, position);
+        return bucket != TimelineBuckets.NONE && (position == 0 || bucketAt(parent, position - 1) != bucket);
+    }
+
+    private static int bucketAt(RecyclerView parent, int position) {
+        RecyclerView.Adapter<?> adapter = parent.getAdapter();
+        return adapter instanceof TaskListAdapter ? ((TaskListAdapter) adapter).getBucket(position)
+                : TimelineBuckets.NONE;
+    }
+}
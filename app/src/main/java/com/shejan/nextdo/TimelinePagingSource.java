@@ -0,0 +1,177 @@
+package com.shejan.nextdo;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kotlin.Unit;
+import kotlin.coroutines.Continuation;
+import kotlinx.coroutines.BuildersKt;
+import kotlinx.coroutines.CoroutineDispatcher;
+import kotlinx.coroutines.ExecutorsKt;
+
+/**
+ * The timeline list: active tasks with a reminder by due time, then the ones
+ * without, newest first, each tagged with its TimelineBuckets section.
+ *
+ * Room's generated sources page with LIMIT/OFFSET over one query, which here
+ * would need a sort of every active task on each page load. Instead each page
+ * is a keyset read after (or before) the (reminderTime, id) of the row at the
+ * edge of the previous page, running over into the no-reminder section when
+ * the reminders run out. Every read is an index range scan (TaskDao timeline
+ * queries). Like Room's sources it is invalidated by any change to the table.
+ */
+final class TimelinePagingSource extends PagingSource<TimelinePagingSource.Key, TimelineTask> {
+
+    /** Position in the timeline; {@code reminderTime} 0 is the no-reminder section. */
+    static final class Key {
+        final long reminderTime;
+        final int id;
+
+        Key(long reminderTime, int id) {
+            this.reminderTime = reminderTime;
+            this.id = id;
+        }
+
+        static Key of(TimelineTask row) {
+            return new Key(row.reminderTime, row.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return reminderTime == other.reminderTime && id == other.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reminderTime, id);
+        }
+    }
+
+    private final AppDatabase db;
+    private final TaskDao taskDao;
+    private final CoroutineDispatcher dispatcher;
+    private final long now;
+    private final long tomorrowStart;
+    private final long dayAfterStart;
+    private final long weekEnd;
+
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("tasks") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+    private final AtomicBoolean observing = new AtomicBoolean();
+
+    /** Sections are computed from {@code now} and the other boundaries (see TimelineBuckets). */
+    TimelinePagingSource(AppDatabase db, long now, long tomorrowStart, long dayAfterStart, long weekEnd) {
+        this.db = db;
+        this.taskDao = db.taskDao();
+        this.dispatcher = ExecutorsKt.from(db.getQueryExecutor());
+        this.now = now;
+        this.tomorrowStart = tomorrowStart;
+        this.dayAfterStart = dayAfterStart;
+        this.weekEnd = weekEnd;
+        registerInvalidatedCallback(() -> {
+            db.getInvalidationTracker().removeObserver(observer);
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Nullable
+    @Override
+    public Object load(@NonNull LoadParams<Key> params,
+            @NonNull Continuation<? super LoadResult<Key, TimelineTask>> continuation) {
+        return BuildersKt.withContext(dispatcher, (scope, inner) -> loadPage(params), continuation);
+    }
+
+    private LoadResult<Key, TimelineTask> loadPage(LoadParams<Key> params) {
+        // Registered on first load, off the main thread: adding an observer may
+        // create Room's triggers.
+        if (observing.compareAndSet(false, true)) {
+            db.getInvalidationTracker().addObserver(observer);
+        }
+        if (getInvalid()) {
+            return new LoadResult.Invalid<>();
+        }
+
+        Key key = params.getKey();
+        int limit = params.getLoadSize();
+        boolean prepend = params instanceof LoadParams.Prepend;
+        boolean append = params instanceof LoadParams.Append;
+        List<TimelineTask> rows = db.runInTransaction(
+                () -> prepend ? loadBefore(key, limit) : loadFrom(key, !append, limit));
+        if (rows.isEmpty()) {
+            return new LoadResult.Page<>(rows, null, null);
+        }
+
+        Key first = Key.of(rows.get(0));
+        Key last = Key.of(rows.get(rows.size() - 1));
+        boolean full = rows.size() == limit;
+        if (prepend) {
+            return new LoadResult.Page<>(rows, full ? first : null, last);
+        }
+        // A refresh from the top has nothing before it.
+        return new LoadResult.Page<>(rows, key == null ? null : first, full ? last : null);
+    }
+
+    /** Up to {@code limit} rows after {@code key} (or at it, if {@code inclusive}), in list order. */
+    private List<TimelineTask> loadFrom(@Nullable Key key, boolean inclusive, int limit) {
+        List<TimelineTask> rows = new ArrayList<>(limit);
+        if (key == null || key.reminderTime > 0) {
+            long afterTime = key == null ? 0 : key.reminderTime;
+            int afterId = key == null ? 0 : inclusive ? key.id - 1 : key.id;
+            rows.addAll(taskDao.getTimelineRemindersAfter(afterTime, afterId, limit, now, tomorrowStart,
+                    dayAfterStart, weekEnd));
+        }
+        if (rows.size() < limit) {
+            int beforeId = key == null || key.reminderTime > 0 ? Integer.MAX_VALUE
+                    : inclusive ? key.id + 1 : key.id;
+            rows.addAll(taskDao.getTimelineNoReminderOlder(beforeId, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    /** Up to {@code limit} rows before {@code key}, in list order. */
+    private List<TimelineTask> loadBefore(Key key, int limit) {
+        List<TimelineTask> rows = new ArrayList<>(limit);
+        if (key.reminderTime == 0) {
+            rows.addAll(taskDao.getTimelineNoReminderNewer(key.id, limit));
+        }
+        if (rows.size() < limit) {
+            long beforeTime = key.reminderTime == 0 ? Long.MAX_VALUE : key.reminderTime;
+            int beforeId = key.reminderTime == 0 ? Integer.MAX_VALUE : key.id;
+            rows.addAll(taskDao.getTimelineRemindersBefore(beforeTime, beforeId, limit - rows.size(), now,
+                    tomorrowStart, dayAfterStart, weekEnd));
+        }
+        // Both reads return the nearest row first.
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    /** Reloads from a little above the last viewed row; the rows before it are prepended. */
+    @Nullable
+    @Override
+    public Key getRefreshKey(@NonNull PagingState<Key, TimelineTask> state) {
+        Integer anchor = state.getAnchorPosition();
+        if (anchor == null) {
+            return null;
+        }
+        TimelineTask row = state.closestItemToPosition(Math.max(0, anchor - state.getConfig().initialLoadSize / 2));
+        return row == null ? null : Key.of(row);
+    }
+}
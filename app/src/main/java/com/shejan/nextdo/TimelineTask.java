@@ -0,0 +1,17 @@
+package com.shejan.nextdo;
+
+/**
+ * A timeline row (TimelinePagingSource): the task plus the due-time section
+ * it falls in (a {@link TimelineBuckets} constant). Not an entity.
+ */
+public class TimelineTask extends TaskListItem {
+    public final int bucket;
+
+    public TimelineTask(int id, String title, String description, String priority, long reminderTime,
+            String repeat, boolean isCompleted, boolean isDeleted, int alarmId, long deletedTimestamp,
+            int bucket) {
+        super(id, title, description, priority, reminderTime, repeat, isCompleted, isDeleted, alarmId,
+                deletedTimestamp);
+        this.bucket = bucket;
+    }
+}
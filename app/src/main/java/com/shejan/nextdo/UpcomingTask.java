@@ -0,0 +1,9 @@
+package com.shejan.nextdo;
+
+// Slim projection of the tasks table for the home-screen widget: only the
+// columns a widget row actually renders.
+public class UpcomingTask {
+    public int id;
+    public String title = "";
+    public long reminderTime = 0;
+}
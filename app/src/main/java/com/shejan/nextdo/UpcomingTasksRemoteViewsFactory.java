@@ -5,18 +5,21 @@ import android.widget.RemoteViews;
 import android.widget.RemoteViewsService;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
 public class UpcomingTasksRemoteViewsFactory implements RemoteViewsService.RemoteViewsFactory {
 
+    // The widget list only has room for a handful of rows; never read more.
+    static final int MAX_WIDGET_ITEMS = 20;
+
     private final Context context;
-    private final List<Task> upcomingTasks = new ArrayList<>();
     private final TaskDao taskDao;
     private final String theme;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("MMM dd, HH:mm", Locale.getDefault());
+
+    // What the widget renders, rebuilt in onDataSetChanged.
+    private volatile WidgetSnapshot snapshot = WidgetSnapshot.EMPTY;
 
     public UpcomingTasksRemoteViewsFactory(Context context, android.content.Intent intent) {
         this.context = context;
@@ -33,50 +36,40 @@ public class UpcomingTasksRemoteViewsFactory implements RemoteViewsService.Remot
     @Override
     public void onDataSetChanged() {
         // This is called when the widget is updated
-        List<Task> allTasks = taskDao.getAllTasksSync();
-        upcomingTasks.clear();
-        long currentTime = System.currentTimeMillis();
-
-        if (allTasks != null) {
-            for (Task task : allTasks) {
-                // Filter for upcoming tasks (reminderTime > current time) and not completed
-                if (!task.isCompleted && task.reminderTime > currentTime) {
-                    upcomingTasks.add(task);
-                }
-            }
-            // Sort by reminder time ascending
-            upcomingTasks.sort(java.util.Comparator.comparingLong(t -> t.reminderTime));
-        }
+        List<UpcomingTask> upcoming = taskDao.getUpcomingTasks(System.currentTimeMillis(), MAX_WIDGET_ITEMS);
+        WidgetSnapshot next = WidgetSnapshot.of(upcoming, timeFormat);
+        int count = next.size();
+
+        snapshot = next;
+        WidgetRefreshScheduler.publishDisplayed(new WidgetRefreshScheduler.DisplayedSet(next.ids,
+                count > 0 ? upcoming.get(count - 1).reminderTime : 0, count >= MAX_WIDGET_ITEMS));
     }
 
     @Override
     public void onDestroy() {
-        upcomingTasks.clear();
+        snapshot = WidgetSnapshot.EMPTY;
     }
 
     @Override
     public int getCount() {
-        return upcomingTasks.size();
+        return snapshot.size();
     }
 
     @Override
     public RemoteViews getViewAt(int position) {
-        if (position >= upcomingTasks.size()) {
+        WidgetSnapshot current = snapshot;
+        if (position >= current.size()) {
             return null;
         }
 
-        Task task = upcomingTasks.get(position);
         int layoutId = R.layout.widget_item_task;
         if ("LIGHT".equals(theme)) {
             layoutId = R.layout.widget_item_task_light;
         }
         RemoteViews rv = new RemoteViews(context.getPackageName(), layoutId);
 
-        rv.setTextViewText(R.id.widget_item_title, task.title);
-
-        SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, HH:mm", Locale.getDefault());
-        String timeStr = sdf.format(new Date(task.reminderTime));
-        rv.setTextViewText(R.id.widget_item_time, timeStr);
+        rv.setTextViewText(R.id.widget_item_title, current.titles[position]);
+        rv.setTextViewText(R.id.widget_item_time, current.times[position]);
 
         return rv;
     }
@@ -93,7 +86,8 @@ public class UpcomingTasksRemoteViewsFactory implements RemoteViewsService.Remot
 
     @Override
     public long getItemId(int position) {
-        return position;
+        WidgetSnapshot current = snapshot;
+        return position < current.size() ? current.ids[position] : position;
     }
 
     @Override
@@ -37,14 +37,9 @@ public class UpcomingTasksWidgetProvider extends AppWidgetProvider {
         appWidgetManager.updateAppWidget(appWidgetId, rv);
     }
 
+    /** Reloads every placed widget, debounced through WidgetRefreshScheduler. */
     public static void sendRefreshBroadcast(Context context) {
-        Intent intent = new Intent(AppWidgetManager.ACTION_APPWIDGET_UPDATE);
-        intent.setComponent(new android.content.ComponentName(context, UpcomingTasksWidgetProvider.class));
-        context.sendBroadcast(intent);
-
-        Intent intentLight = new Intent(AppWidgetManager.ACTION_APPWIDGET_UPDATE);
-        intentLight.setComponent(new android.content.ComponentName(context, UpcomingTasksLightWidgetProvider.class));
-        context.sendBroadcast(intentLight);
+        WidgetRefreshScheduler.requestRefresh(context);
     }
 
     @Override
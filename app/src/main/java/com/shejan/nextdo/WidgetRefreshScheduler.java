@@ -0,0 +1,125 @@
+package com.shejan.nextdo;
+
+import android.appwidget.AppWidgetManager;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces "tasks changed" signals into at most one widget reload per
+ * {@link #DEBOUNCE_MS} window. Changes that cannot alter the upcoming-reminders
+ * list the widgets are currently showing are dropped, and only providers with
+ * placed widget instances are told to reload.
+ */
+public final class WidgetRefreshScheduler {
+    private static final String TAG = "WidgetRefreshScheduler";
+    static final long DEBOUNCE_MS = 300;
+
+    private static final Class<?>[] PROVIDERS = {
+            UpcomingTasksWidgetProvider.class, UpcomingTasksLightWidgetProvider.class };
+
+    private static final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    /**
+     * What the widgets last rendered, published by UpcomingTasksRemoteViewsFactory.
+     * Null until the first load in this process, in which case every change
+     * triggers a refresh.
+     */
+    private static volatile DisplayedSet displayed;
+
+    static final class DisplayedSet {
+        final int[] ids;
+        final long lastReminderTime;
+        final boolean full;
+
+        DisplayedSet(int[] ids, long lastReminderTime, boolean full) {
+            this.ids = ids;
+            this.lastReminderTime = lastReminderTime;
+            this.full = full;
+        }
+
+        boolean contains(int id) {
+            for (int displayedId : ids) {
+                if (displayedId == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Created on first use so the pure filtering logic doesn't need a Looper.
+    private static final class MainHandler {
+        static final Handler INSTANCE = new Handler(Looper.getMainLooper());
+    }
+
+    private WidgetRefreshScheduler() {
+    }
+
+    static void publishDisplayed(DisplayedSet set) {
+        displayed = set;
+    }
+
+    /** A task was inserted or updated; {@code task} holds its new state. */
+    public static void onTaskChanged(Context context, Task task) {
+        if (affectsUpcoming(displayed, task, false, System.currentTimeMillis())) {
+            requestRefresh(context);
+        }
+    }
+
+    /** A task row was removed from the database. */
+    public static void onTaskRemoved(Context context, Task task) {
+        if (affectsUpcoming(displayed, task, true, System.currentTimeMillis())) {
+            requestRefresh(context);
+        }
+    }
+
+    /** Something changed that can't be attributed to a single task. */
+    public static void requestRefresh(Context context) {
+        if (!refreshPending.compareAndSet(false, true)) {
+            return;
+        }
+        final Context appContext = context.getApplicationContext();
+        MainHandler.INSTANCE.postDelayed(() -> {
+            refreshPending.set(false);
+            refreshNow(appContext);
+        }, DEBOUNCE_MS);
+    }
+
+    private static void refreshNow(Context context) {
+        try {
+            AppWidgetManager manager = AppWidgetManager.getInstance(context);
+            for (Class<?> provider : PROVIDERS) {
+                int[] widgetIds = manager.getAppWidgetIds(new ComponentName(context, provider));
+                if (widgetIds != null && widgetIds.length > 0) {
+                    manager.notifyAppWidgetViewDataChanged(widgetIds, R.id.widget_list_view);
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error refreshing widgets: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether a change to {@code task} can change the widget list. The list is
+     * the first N active tasks with a future reminder, ordered by reminderTime:
+     * a change matters if the task is on it now, or if its new state puts it
+     * there (a free slot, or a reminder earlier than the last one shown).
+     */
+    static boolean affectsUpcoming(DisplayedSet set, Task task, boolean removed, long now) {
+        if (set == null) {
+            return true;
+        }
+        if (set.contains(task.id)) {
+            return true;
+        }
+        if (removed || task.isDeleted || task.isCompleted || task.reminderTime <= now) {
+            return false;
+        }
+        return !set.full || task.reminderTime <= set.lastReminderTime;
+    }
+}
@@ -0,0 +1,46 @@
+package com.shejan.nextdo;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable copy of what the upcoming-tasks widget renders, rebuilt by
+ * UpcomingTasksRemoteViewsFactory on each refresh. Times are formatted once
+ * here rather than once per getViewAt. Kept free of android.* so it can be
+ * benchmarked on the JVM.
+ */
+public final class WidgetSnapshot {
+    public static final WidgetSnapshot EMPTY = new WidgetSnapshot(new int[0], new String[0], new String[0]);
+
+    final int[] ids;
+    final String[] titles;
+    final String[] times;
+
+    private WidgetSnapshot(int[] ids, String[] titles, String[] times) {
+        this.ids = ids;
+        this.titles = titles;
+        this.times = times;
+    }
+
+    /** Snapshot of {@code upcoming} (TaskDao.getUpcomingTasks order), times in {@code timeFormat}. */
+    public static WidgetSnapshot of(List<UpcomingTask> upcoming, SimpleDateFormat timeFormat) {
+        int count = upcoming != null ? upcoming.size() : 0;
+        int[] ids = new int[count];
+        String[] titles = new String[count];
+        String[] times = new String[count];
+        Date date = new Date();
+        for (int i = 0; i < count; i++) {
+            UpcomingTask task = upcoming.get(i);
+            ids[i] = task.id;
+            titles[i] = task.title;
+            date.setTime(task.reminderTime);
+            times[i] = timeFormat.format(date);
+        }
+        return new WidgetSnapshot(ids, titles, times);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
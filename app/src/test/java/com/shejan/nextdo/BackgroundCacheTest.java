@@ -0,0 +1,85 @@
+package com.shejan.nextdo;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class BackgroundCacheTest {
+
+    // 64x64 ARGB_8888 = 16 KB each.
+    private static Bitmap bitmap() {
+        return Bitmap.createBitmap(64, 64, Bitmap.Config.ARGB_8888);
+    }
+
+    @Test
+    public void key_includesIdAndSize() {
+        assertEquals("bg_dark_waves@1080x2400", BackgroundCache.key("bg_dark_waves", 1080, 2400));
+        assertNotEquals(BackgroundCache.key("custom:1", 1080, 2400), BackgroundCache.key("custom:2", 1080, 2400));
+        assertNotEquals(BackgroundCache.key("bg_dark_waves", 1080, 2400),
+                BackgroundCache.key("bg_dark_waves", 1440, 3200));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        BackgroundCache cache = new BackgroundCache(1024);
+        Bitmap bitmap = bitmap();
+        assertNull(cache.get("a"));
+        cache.put("a", bitmap);
+        assertSame(bitmap, cache.get("a"));
+        assertSame(bitmap, cache.get("a"));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(16, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedBeyondBudget() {
+        BackgroundCache cache = new BackgroundCache(32);
+        cache.put("a", bitmap());
+        cache.put("b", bitmap());
+        cache.get("a");
+        cache.put("c", bitmap());
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void trimMemory_shrinksByLevel() {
+        BackgroundCache cache = new BackgroundCache(64);
+        for (String key : new String[] { "a", "b", "c", "d" }) {
+            cache.put(key, bitmap());
+        }
+
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        assertEquals(48, cache.size());
+        assertNotNull(cache.get("d"));
+
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertEquals(32, cache.size());
+
+        cache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void ignoresNullEntries() {
+        BackgroundCache cache = new BackgroundCache(64);
+        cache.put("a", null);
+        cache.put(null, bitmap());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,35 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BackgroundImageStoreTest {
+
+    @Test
+    public void inSampleSize_keepsDecodedImageAtLeastDisplaySized() {
+        // Upright 12 MP photo on a 1080x2400 display: halving would drop the height below 2400.
+        assertEquals(1, BackgroundImageStore.calculateInSampleSize(3000, 4000, 1080, 2400));
+        assertEquals(2, BackgroundImageStore.calculateInSampleSize(3000, 6000, 1080, 2400));
+        assertEquals(4, BackgroundImageStore.calculateInSampleSize(6000, 12000, 1080, 2400));
+    }
+
+    @Test
+    public void inSampleSize_isOneForSmallImages() {
+        assertEquals(1, BackgroundImageStore.calculateInSampleSize(800, 600, 1080, 2400));
+        assertEquals(1, BackgroundImageStore.calculateInSampleSize(1080, 2400, 1080, 2400));
+    }
+
+    @Test
+    public void inSampleSize_ignoresUnknownTarget() {
+        assertEquals(1, BackgroundImageStore.calculateInSampleSize(4000, 3000, 0, 0));
+    }
+
+    @Test
+    public void coverScale_shrinksToCoverTargetWithoutUpscaling() {
+        assertEquals(0.5f, BackgroundImageStore.coverScale(2160, 4800, 1080, 2400), 0.0001f);
+        // Wider than the screen: height decides.
+        assertEquals(0.6f, BackgroundImageStore.coverScale(4000, 4000, 1080, 2400), 0.0001f);
+        assertEquals(1f, BackgroundImageStore.coverScale(720, 1280, 1080, 2400), 0.0001f);
+    }
+}
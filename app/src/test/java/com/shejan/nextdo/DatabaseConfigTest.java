@@ -0,0 +1,70 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Opens a file-backed AppDatabase through DatabaseConfig and reads the PRAGMAs
+ * back from the primary connection, the one Room writes on and the only one
+ * onOpen configures.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseConfigTest {
+    private static final String NAME = "config_test.db";
+
+    private Context context;
+    private AppDatabase database;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(NAME);
+        database = DatabaseConfig.configure(Room.databaseBuilder(context, AppDatabase.class, NAME))
+                .allowMainThreadQueries()
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(NAME);
+    }
+
+    @Test
+    public void open_enablesWal() {
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+
+        assertTrue(db.isWriteAheadLoggingEnabled());
+        assertEquals("wal", DatabaseConfig.pragma(db, "PRAGMA journal_mode").toLowerCase());
+    }
+
+    @Test
+    public void open_appliesTunedPragmas() {
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+
+        assertEquals(String.valueOf(DatabaseConfig.SYNCHRONOUS_NORMAL),
+                DatabaseConfig.pragma(db, "PRAGMA synchronous"));
+        assertEquals("-" + DatabaseConfig.CACHE_SIZE_KIB, DatabaseConfig.pragma(db, "PRAGMA cache_size"));
+        assertEquals(String.valueOf(DatabaseConfig.WAL_AUTOCHECKPOINT_PAGES),
+                DatabaseConfig.pragma(db, "PRAGMA wal_autocheckpoint"));
+        assertEquals(String.valueOf(DatabaseConfig.JOURNAL_SIZE_LIMIT_BYTES),
+                DatabaseConfig.pragma(db, "PRAGMA journal_size_limit"));
+    }
+
+    @Test
+    public void configure_runsRoomQueriesOnTheReadExecutor() {
+        assertTrue(database.getQueryExecutor() == DatabaseConfig.databaseReadExecutor);
+    }
+}
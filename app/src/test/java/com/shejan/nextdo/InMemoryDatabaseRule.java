@@ -0,0 +1,59 @@
+package com.shejan.nextdo;
+
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.rules.ExternalResource;
+
+/**
+ * A fresh in-memory AppDatabase for each test, closed afterwards. Queries may
+ * run on the test thread. {@link #inlineQueries()} also runs Room's own
+ * background work (LiveData re-queries, invalidation) inline, so a test only
+ * has to idle the main looper.
+ */
+public class InMemoryDatabaseRule extends ExternalResource {
+    private final boolean inlineQueries;
+    private AppDatabase database;
+
+    public InMemoryDatabaseRule() {
+        this(false);
+    }
+
+    private InMemoryDatabaseRule(boolean inlineQueries) {
+        this.inlineQueries = inlineQueries;
+    }
+
+    public static InMemoryDatabaseRule inlineQueries() {
+        return new InMemoryDatabaseRule(true);
+    }
+
+    @Override
+    protected void before() {
+        RoomDatabase.Builder<AppDatabase> builder = Room
+                .inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries();
+        if (inlineQueries) {
+            builder.setQueryExecutor(Runnable::run);
+        }
+        database = builder.build();
+    }
+
+    @Override
+    protected void after() {
+        database.close();
+    }
+
+    public AppDatabase database() {
+        return database;
+    }
+
+    public TaskDao taskDao() {
+        return database.taskDao();
+    }
+
+    /** Inserts {@code task} and returns its generated id. */
+    public int insert(Task task) {
+        return (int) database.taskDao().insert(task);
+    }
+}
@@ -0,0 +1,139 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.ListenableWorker;
+import androidx.work.WorkerFactory;
+import androidx.work.WorkerParameters;
+import androidx.work.testing.TestWorkerBuilder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class PurgeWorkerTest {
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void doWork_deletesOnlyExpiredRows() {
+        long now = System.currentTimeMillis();
+        int oldDeleted = db.insert(deletedAt(now - 31 * DAY_MS));
+        int newDeleted = db.insert(deletedAt(now - DAY_MS));
+        int oldCompleted = db.insert(completedAt(now - 16 * DAY_MS));
+        int newCompleted = db.insert(completedAt(now - DAY_MS));
+
+        assertEquals(ListenableWorker.Result.success(), runWorker());
+
+        assertNull(db.taskDao().getTaskById(oldDeleted));
+        assertNull(db.taskDao().getTaskById(oldCompleted));
+        assertNotNull(db.taskDao().getTaskById(newDeleted));
+        assertNotNull(db.taskDao().getTaskById(newCompleted));
+    }
+
+    @Test
+    public void doWork_retriesWhenADeleteFails() {
+        int expired = db.insert(deletedAt(System.currentTimeMillis() - 31 * DAY_MS));
+        db.database().getOpenHelper().getWritableDatabase().execSQL(
+                "CREATE TRIGGER fail_delete BEFORE DELETE ON tasks BEGIN SELECT RAISE(ABORT, 'disk full'); END");
+
+        assertEquals(ListenableWorker.Result.retry(), runWorker());
+
+        assertNotNull(db.taskDao().getTaskById(expired));
+    }
+
+    @Test
+    public void hasExpired_onlyWhenOldestRowIsPastThreshold() {
+        assertFalse(PurgeWorker.hasExpired(null, 1_000));
+        assertFalse(PurgeWorker.hasExpired(1_000L, 1_000));
+        assertFalse(PurgeWorker.hasExpired(5_000L, 1_000));
+        assertTrue(PurgeWorker.hasExpired(999L, 1_000));
+    }
+
+    @Test
+    public void deleteInChunks_stopsAtFirstPartialChunk() {
+        int[] remaining = { 450 };
+        List<Integer> limits = new ArrayList<>();
+        int total = PurgeWorker.deleteInChunks(limit -> {
+            limits.add(limit);
+            int deleted = Math.min(limit, remaining[0]);
+            remaining[0] -= deleted;
+            return deleted;
+        }, 200, () -> false);
+
+        assertEquals(450, total);
+        assertEquals(3, limits.size());
+        assertEquals(0, remaining[0]);
+    }
+
+    @Test
+    public void deleteInChunks_exactMultipleNeedsOneEmptyChunk() {
+        int[] remaining = { 400 };
+        int[] calls = { 0 };
+        int total = PurgeWorker.deleteInChunks(limit -> {
+            calls[0]++;
+            int deleted = Math.min(limit, remaining[0]);
+            remaining[0] -= deleted;
+            return deleted;
+        }, 200, () -> false);
+
+        assertEquals(400, total);
+        assertEquals(3, calls[0]);
+    }
+
+    @Test
+    public void deleteInChunks_honoursStop() {
+        int[] calls = { 0 };
+        int total = PurgeWorker.deleteInChunks(limit -> {
+            calls[0]++;
+            return limit;
+        }, 200, () -> calls[0] >= 2);
+
+        assertEquals(400, total);
+        assertEquals(2, calls[0]);
+    }
+
+    // Runs doWork() on the test thread against the in-memory database.
+    private ListenableWorker.Result runWorker() {
+        Context context = ApplicationProvider.getApplicationContext();
+        TaskWriteQueue writeQueue = new TaskWriteQueue(context, db.database());
+        PurgeWorker worker = TestWorkerBuilder.from(context, PurgeWorker.class, Runnable::run)
+                .setWorkerFactory(new WorkerFactory() {
+                    @Override
+                    public ListenableWorker createWorker(@NonNull Context appContext,
+                            @NonNull String workerClassName, @NonNull WorkerParameters params) {
+                        return new PurgeWorker(appContext, params, db.database(), writeQueue);
+                    }
+                })
+                .build();
+        return worker.doWork();
+    }
+
+    private static Task deletedAt(long timestamp) {
+        Task task = task("Deleted").deleted(true).build();
+        task.deletedTimestamp = timestamp;
+        return task;
+    }
+
+    private static Task completedAt(long timestamp) {
+        Task task = task("Completed").completed(true).build();
+        task.completedTimestamp = timestamp;
+        return task;
+    }
+}
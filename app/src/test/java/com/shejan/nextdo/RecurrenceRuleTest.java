@@ -0,0 +1,143 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RecurrenceRuleTest {
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long HOUR = 60L * 60 * 1000;
+
+    @Test
+    public void parse_mapsRepeatArrayValues() {
+        assertEquals(RecurrenceRule.FREQ_DAILY, RecurrenceRule.parse("Daily").getFrequency());
+        assertEquals(RecurrenceRule.FREQ_WEEKLY, RecurrenceRule.parse("weekly").getFrequency());
+        assertEquals(RecurrenceRule.FREQ_MONTHLY, RecurrenceRule.parse("Monthly").getFrequency());
+        assertEquals(RecurrenceRule.FREQ_YEARLY, RecurrenceRule.parse("YEARLY").getFrequency());
+        assertSame(RecurrenceRule.NONE, RecurrenceRule.parse("NONE"));
+        assertSame(RecurrenceRule.NONE, RecurrenceRule.parse(""));
+        assertSame(RecurrenceRule.NONE, RecurrenceRule.parse(null));
+        assertSame(RecurrenceRule.parse("Daily"), RecurrenceRule.parse("Daily"));
+    }
+
+    @Test
+    public void daily_keepsWallClockAcrossSpringForward() {
+        // 2024-03-10 is the US spring-forward day: the day is only 23 hours long.
+        long anchor = time(NEW_YORK, 2024, Calendar.MARCH, 9, 9, 0);
+        long next = RecurrenceRule.parse("Daily").nextOccurrence(anchor, anchor, NEW_YORK);
+
+        assertEquals(time(NEW_YORK, 2024, Calendar.MARCH, 10, 9, 0), next);
+        assertEquals(23 * HOUR, next - anchor);
+    }
+
+    @Test
+    public void daily_keepsWallClockAcrossFallBack() {
+        long anchor = time(NEW_YORK, 2024, Calendar.NOVEMBER, 2, 9, 0);
+        long next = RecurrenceRule.parse("Daily").nextOccurrence(anchor, anchor, NEW_YORK);
+
+        assertEquals(time(NEW_YORK, 2024, Calendar.NOVEMBER, 3, 9, 0), next);
+        assertEquals(25 * HOUR, next - anchor);
+    }
+
+    @Test
+    public void daily_timeInsideDstGapIsShiftedForward() {
+        // 02:30 does not exist on 2024-03-10 in New York; lenient Calendar gives 03:30.
+        long anchor = time(NEW_YORK, 2024, Calendar.MARCH, 9, 2, 30);
+        long next = RecurrenceRule.parse("Daily").nextOccurrence(anchor, anchor, NEW_YORK);
+
+        assertEquals(time(NEW_YORK, 2024, Calendar.MARCH, 10, 3, 30), next);
+        // The following day returns to the anchor's wall-clock time.
+        assertEquals(time(NEW_YORK, 2024, Calendar.MARCH, 11, 2, 30),
+                RecurrenceRule.parse("Daily").nextOccurrence(anchor, next, NEW_YORK));
+    }
+
+    @Test
+    public void weekly_crossesDstWithoutDrift() {
+        long anchor = time(NEW_YORK, 2024, Calendar.MARCH, 4, 18, 45);
+        long next = RecurrenceRule.parse("Weekly").nextOccurrence(anchor, anchor, NEW_YORK);
+
+        assertEquals(time(NEW_YORK, 2024, Calendar.MARCH, 11, 18, 45), next);
+    }
+
+    @Test
+    public void monthly_clampsToMonthEndWithoutDrifting() {
+        RecurrenceRule monthly = RecurrenceRule.parse("Monthly");
+        long anchor = time(UTC, 2024, Calendar.JANUARY, 31, 8, 0);
+
+        long feb = monthly.nextOccurrence(anchor, anchor, UTC);
+        long mar = monthly.nextOccurrence(anchor, feb, UTC);
+        long apr = monthly.nextOccurrence(anchor, mar, UTC);
+
+        assertEquals(time(UTC, 2024, Calendar.FEBRUARY, 29, 8, 0), feb); // leap year
+        assertEquals(time(UTC, 2024, Calendar.MARCH, 31, 8, 0), mar);
+        assertEquals(time(UTC, 2024, Calendar.APRIL, 30, 8, 0), apr);
+    }
+
+    @Test
+    public void monthly_februaryInNonLeapYear() {
+        long anchor = time(UTC, 2023, Calendar.JANUARY, 31, 8, 0);
+        assertEquals(time(UTC, 2023, Calendar.FEBRUARY, 28, 8, 0),
+                RecurrenceRule.parse("Monthly").nextOccurrence(anchor, anchor, UTC));
+    }
+
+    @Test
+    public void monthly_wrapsIntoNextYear() {
+        long anchor = time(UTC, 2024, Calendar.DECEMBER, 15, 8, 0);
+        assertEquals(time(UTC, 2025, Calendar.JANUARY, 15, 8, 0),
+                RecurrenceRule.parse("Monthly").nextOccurrence(anchor, anchor, UTC));
+    }
+
+    @Test
+    public void yearly_leapDayFallsBackToFebruary28() {
+        RecurrenceRule yearly = RecurrenceRule.parse("Yearly");
+        long anchor = time(UTC, 2024, Calendar.FEBRUARY, 29, 12, 0);
+
+        assertEquals(time(UTC, 2025, Calendar.FEBRUARY, 28, 12, 0), yearly.occurrence(anchor, 1, UTC));
+        assertEquals(time(UTC, 2027, Calendar.FEBRUARY, 28, 12, 0), yearly.occurrence(anchor, 3, UTC));
+        assertEquals(time(UTC, 2028, Calendar.FEBRUARY, 29, 12, 0), yearly.occurrence(anchor, 4, UTC));
+        // Century rule: 2100 is not a leap year, 2400 is.
+        assertEquals(time(UTC, 2100, Calendar.FEBRUARY, 28, 12, 0), yearly.occurrence(anchor, 76, UTC));
+        assertEquals(time(UTC, 2400, Calendar.FEBRUARY, 29, 12, 0), yearly.occurrence(anchor, 376, UTC));
+    }
+
+    @Test
+    public void nextOccurrence_farFromAnchorMatchesStepping() {
+        String[] rules = { "Daily", "Weekly", "Monthly", "Yearly" };
+        long anchor = time(NEW_YORK, 2020, Calendar.JANUARY, 31, 23, 30);
+        long after = time(NEW_YORK, 2031, Calendar.JULY, 4, 12, 0);
+
+        for (String repeat : rules) {
+            RecurrenceRule rule = RecurrenceRule.parse(repeat);
+            long expected = anchor;
+            for (long n = 1; expected <= after; n++) {
+                expected = rule.occurrence(anchor, n, NEW_YORK);
+            }
+            assertEquals(repeat, expected, rule.nextOccurrence(anchor, after, NEW_YORK));
+        }
+    }
+
+    @Test
+    public void nextOccurrence_nonRecurring() {
+        long anchor = time(UTC, 2024, Calendar.MAY, 1, 9, 0);
+        assertEquals(anchor, RecurrenceRule.NONE.nextOccurrence(anchor, anchor - 1, UTC));
+        assertEquals(RecurrenceRule.NO_OCCURRENCE, RecurrenceRule.NONE.nextOccurrence(anchor, anchor, UTC));
+        assertFalse(RecurrenceRule.NONE.isRecurring());
+        assertTrue(RecurrenceRule.parse("Daily").isRecurring());
+    }
+
+    private static long time(TimeZone zone, int year, int month, int day, int hour, int minute) {
+        GregorianCalendar calendar = new GregorianCalendar(zone);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, 0);
+        return calendar.getTimeInMillis();
+    }
+}
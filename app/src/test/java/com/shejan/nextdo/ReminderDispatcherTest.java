@@ -0,0 +1,53 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReminderDispatcherTest {
+
+    @Test
+    public void repeatOfSameReminder_insideWindow_isDropped() {
+        ReminderDispatcher.RecentDeliveries recent = new ReminderDispatcher.RecentDeliveries(1000);
+        long key = reminder(7, 70).key();
+
+        assertTrue(recent.tryDeliver(key, 5_000));
+        assertFalse(recent.tryDeliver(key, 5_999));
+        assertTrue(recent.tryDeliver(key, 6_000));
+    }
+
+    @Test
+    public void differentTasks_atTheSameMoment_areAllDelivered() {
+        // The old receiver-wide 1 s guard dropped every reminder after the first.
+        ReminderDispatcher.RecentDeliveries recent = new ReminderDispatcher.RecentDeliveries(1000);
+
+        assertTrue(recent.tryDeliver(reminder(1, 10).key(), 5_000));
+        assertTrue(recent.tryDeliver(reminder(2, 20).key(), 5_000));
+        assertTrue(recent.tryDeliver(reminder(3, 30).key(), 5_000));
+    }
+
+    @Test
+    public void expiredEntries_arePruned() {
+        ReminderDispatcher.RecentDeliveries recent = new ReminderDispatcher.RecentDeliveries(1000);
+        for (int id = 1; id <= 50; id++) {
+            recent.tryDeliver(reminder(id, id).key(), 0);
+        }
+
+        recent.tryDeliver(reminder(99, 99).key(), 10_000);
+        assertEquals(1, recent.size());
+    }
+
+    @Test
+    public void key_distinguishesTaskAndAlarm() {
+        assertNotEquals(reminder(1, 2).key(), reminder(2, 1).key());
+        assertNotEquals(reminder(1, -1).key(), reminder(1, 0).key());
+        assertEquals(reminder(5, -3).key(), reminder(5, -3).key());
+    }
+
+    private static ReminderDispatcher.Reminder reminder(int taskId, int alarmId) {
+        return new ReminderDispatcher.Reminder(taskId, alarmId, "Title", "");
+    }
+}
@@ -0,0 +1,62 @@
+package com.shejan.nextdo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+
+import static com.shejan.nextdo.TestTasks.ids;
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The single-alarm queue queries: a reminder is handed out once per
+ * reminderTime, however far in the past it is, and becomes pending again when
+ * reminderTime moves.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReminderQueueDaoTest {
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void claimDueReminders_deliversPastRemindersOnce() {
+        int old = db.insert(task("Reminder").reminder(NOW - 86_400_000L, 1).build());
+        int due = db.insert(task("Reminder").reminder(NOW - 1000, 2).build());
+        db.insert(task("Reminder").reminder(NOW + 60_000, 3).build());
+
+        assertEquals(Arrays.asList(old, due), ids(db.taskDao().claimDueReminders(NOW)));
+        assertTrue(db.taskDao().claimDueReminders(NOW).isEmpty());
+        assertEquals(Long.valueOf(NOW + 60_000), db.taskDao().getNextReminderTime());
+    }
+
+    @Test
+    public void movingReminderTime_makesItPendingAgain() {
+        int id = db.insert(task("Reminder").reminder(NOW - 1000, 1).build());
+        db.taskDao().claimDueReminders(NOW);
+        assertNull(db.taskDao().getNextReminderTime());
+
+        // Re-saved (or clock moved back) to a time before the last dispatch.
+        Task task = db.taskDao().getTaskById(id);
+        task.reminderTime = NOW - 5000;
+        db.taskDao().update(task);
+
+        assertEquals(Long.valueOf(NOW - 5000), db.taskDao().getNextReminderTime());
+        assertEquals(Arrays.asList(id), ids(db.taskDao().claimDueReminders(NOW)));
+    }
+
+    @Test
+    public void markPastRemindersNotified_skipsFutureReminders() {
+        int past = db.insert(task("Reminder").reminder(NOW - 1000, 1).build());
+        int future = db.insert(task("Reminder").reminder(NOW + 60_000, 2).build());
+
+        assertEquals(1, db.taskDao().markPastRemindersNotified(Arrays.asList(past, future), NOW));
+        assertEquals(Long.valueOf(NOW + 60_000), db.taskDao().getNextReminderTime());
+    }
+}
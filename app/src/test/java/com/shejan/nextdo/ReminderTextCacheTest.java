@@ -0,0 +1,75 @@
+package com.shejan.nextdo;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReminderTextCacheTest {
+
+    private static final long BASE = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    private static final int ROWS = 40; // about two screens of list rows
+
+    @Test
+    public void format_matchesSimpleDateFormat() {
+        ReminderTextCache cache = new ReminderTextCache(Locale.US);
+        SimpleDateFormat expected = new SimpleDateFormat(ReminderTextCache.PATTERN, Locale.US);
+
+        for (int i = 0; i < 1000; i++) {
+            long time = BASE + i * 37L * 60_000;
+            assertEquals(expected.format(time), cache.format(time));
+        }
+    }
+
+    @Test
+    public void format_returnsCachedInstanceForSameTime() {
+        ReminderTextCache cache = new ReminderTextCache(Locale.US);
+        assertSame(cache.format(BASE), cache.format(BASE));
+    }
+
+    @Test
+    public void format_doesNotAllocateWhenRebindingVisibleRows() {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        Assume.assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ReminderTextCache cache = new ReminderTextCache(Locale.US);
+        long[] times = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            times[i] = BASE + i * 3_600_000L;
+        }
+        // First bind of each row fills the cache; also lets the JIT settle.
+        for (int pass = 0; pass < 2_000; pass++) {
+            rebind(cache, times);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int pass = 0; pass < 10_000; pass++) {
+            rebind(cache, times);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // 400k lookups; allow for the measurement call itself but not one object per bind.
+        assertTrue("Rebinding allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static int rebind(ReminderTextCache cache, long[] times) {
+        int length = 0;
+        for (long time : times) {
+            length += cache.format(time).length();
+        }
+        return length;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+}
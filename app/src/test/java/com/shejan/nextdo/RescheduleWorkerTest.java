@@ -0,0 +1,80 @@
+package com.shejan.nextdo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Walks TaskDao.getRemindersAfter the way RescheduleWorker does and checks that
+ * the (reminderTime, id) cursor visits every eligible reminder exactly once,
+ * including ties on reminderTime across chunk boundaries.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RescheduleWorkerTest {
+    private static final int CHUNK = 7;
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void cursor_visitsEachFutureReminderOnce() {
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            // Only three distinct times, so most chunks end in the middle of a tie.
+            expected.add(db.insert(task("Task").reminder(10_000L + (i % 3) * 1_000L, 100 + i).build()));
+        }
+        db.insert(task("Task").reminder(5_000L, 1).build()); // before the cursor start
+        db.insert(task("Task").reminder(12_000L, 2).completed(true).build()); // completed
+        db.insert(task("Task").reminder(12_000L, 3).deleted(true).build()); // in the recycle bin
+        db.insert(task("Task").reminder(12_000L, 0).build()); // no alarm
+
+        List<Integer> visited = walk(9_000L, 0);
+
+        assertEquals(expected.size(), visited.size());
+        assertEquals(expected, new HashSet<>(visited));
+    }
+
+    @Test
+    public void cursor_resumesAfterLastArmedRow() {
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            all.add(db.insert(task("Task").reminder(20_000L, 200 + i).build()));
+        }
+        List<Task> first = db.taskDao().getRemindersAfter(0, 0, 4);
+        Task last = first.get(first.size() - 1);
+
+        List<Integer> rest = walk(last.reminderTime, last.id);
+
+        assertEquals(6, rest.size());
+        for (Task task : first) {
+            assertTrue(!rest.contains(task.id));
+        }
+        assertTrue(all.containsAll(rest));
+    }
+
+    private List<Integer> walk(long afterTime, int afterId) {
+        List<Integer> visited = new ArrayList<>();
+        while (true) {
+            List<Task> chunk = db.taskDao().getRemindersAfter(afterTime, afterId, CHUNK);
+            for (Task task : chunk) {
+                visited.add(task.id);
+            }
+            if (chunk.size() < CHUNK) {
+                return visited;
+            }
+            Task last = chunk.get(chunk.size() - 1);
+            afterTime = last.reminderTime;
+            afterId = last.id;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SearchQueryTest {
+
+    @Test
+    public void everyTokenBecomesAPrefixTerm() {
+        assertEquals("Buy* mil*", SearchQuery.toMatch("  Buy mil"));
+        assertEquals("title:Buy* title:mil*", SearchQuery.toMatch("Buy mil", "title"));
+    }
+
+    @Test
+    public void matchSyntaxIsStripped() {
+        assertEquals("a* b* c*", SearchQuery.toMatch("\"a\" -b* (c)"));
+        assertEquals("OR* NEAR*", SearchQuery.toMatch("OR NEAR"));
+        assertEquals("title* x*", SearchQuery.toMatch("title:x"));
+    }
+
+    @Test
+    public void nothingToSearchForIsNull() {
+        assertNull(SearchQuery.toMatch(null));
+        assertNull(SearchQuery.toMatch(""));
+        assertNull(SearchQuery.toMatch("  -*\"() "));
+        assertNull(SearchQuery.toMatch("   ", "title"));
+    }
+
+    @Test
+    public void keepsNonAsciiLettersAndDigits() {
+        assertEquals(Arrays.asList("caf\u00e9", "2024"), SearchQuery.tokenize("caf\u00e9, 2024!"));
+    }
+
+    @Test
+    public void combiningMarksStayInsideTheWord() {
+        // Bengali "কাজ শেষ" and Devanagari "हिंदी": vowel signs are Mc, anusvara is Mn.
+        assertEquals(Arrays.asList("\u0995\u09be\u099c", "\u09b6\u09c7\u09b7"),
+                SearchQuery.tokenize("\u0995\u09be\u099c \u09b6\u09c7\u09b7"));
+        assertEquals("\u0995\u09be\u099c*", SearchQuery.toMatch("\u0995\u09be\u099c"));
+        assertEquals(Arrays.asList("\u0939\u093f\u0902\u0926\u0940"),
+                SearchQuery.tokenize("\u0939\u093f\u0902\u0926\u0940!"));
+    }
+
+    @Test
+    public void tokenCountIsCapped() {
+        assertEquals(SearchQuery.MAX_TOKENS, SearchQuery.tokenize("a b c d e f g h i j k").size());
+    }
+}
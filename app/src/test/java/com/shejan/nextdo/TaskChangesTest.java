@@ -0,0 +1,58 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskChangesTest {
+
+    @Test
+    public void identicalTasks_haveNoChanges() {
+        assertEquals(0, TaskChanges.diff(row().listItem(), row().listItem()));
+        assertTrue(TaskChanges.sameContents(row().listItem(), row().listItem()));
+    }
+
+    @Test
+    public void eachRenderedField_setsItsOwnBit() {
+        TaskListItem base = row().listItem();
+
+        assertEquals(TaskChanges.TITLE, TaskChanges.diff(base, row("Other").listItem()));
+        assertEquals(TaskChanges.DESCRIPTION, TaskChanges.diff(base, row().description(null).listItem()));
+        assertEquals(TaskChanges.PRIORITY, TaskChanges.diff(base, row().priority("Low").listItem()));
+        assertEquals(TaskChanges.REMINDER, TaskChanges.diff(base, row().reminder(1_001L, 0).listItem()));
+        assertEquals(TaskChanges.COMPLETION, TaskChanges.diff(base, row().completed(true).listItem()));
+        assertEquals(TaskChanges.REPEAT, TaskChanges.diff(base, row().repeat("Weekly").listItem()));
+    }
+
+    @Test
+    public void multipleChanges_areCombined() {
+        TaskListItem changed = row("Other").completed(true).listItem();
+
+        assertEquals(TaskChanges.TITLE | TaskChanges.COMPLETION, TaskChanges.diff(row().listItem(), changed));
+        assertFalse(TaskChanges.sameContents(row().listItem(), changed));
+    }
+
+    @Test
+    public void fieldsNotShownInTheList_areIgnored() {
+        TaskListItem changed = row().reminder(1_000L, 99).deleted(true).listItem();
+
+        assertTrue(TaskChanges.sameContents(row().listItem(), changed));
+    }
+
+    @Test
+    public void allMask_fitsIntegerBoxCache() {
+        // Payloads are boxed; staying within the Integer cache keeps diffing allocation-free.
+        assertTrue(TaskChanges.ALL <= 127);
+    }
+
+    private static TestTasks.Builder row() {
+        return row("Title");
+    }
+
+    private static TestTasks.Builder row(String title) {
+        return task(title).id(1).description("Description").priority("High").reminder(1_000L, 0).repeat("Daily");
+    }
+}
@@ -0,0 +1,92 @@
+package com.shejan.nextdo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the TaskDao bulk methods against a real database, with more ids than
+ * {@link TaskDao#MAX_IDS_PER_STATEMENT} so the chunking is exercised.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskDaoBulkTest {
+    private static final int COUNT = TaskDao.MAX_IDS_PER_STATEMENT * 2 + 7;
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void chunk_splitsAtTheStatementLimit() {
+        List<List<Integer>> chunks = TaskDao.chunk(range(COUNT));
+
+        assertEquals(3, chunks.size());
+        assertEquals(TaskDao.MAX_IDS_PER_STATEMENT, chunks.get(0).size());
+        assertEquals(7, chunks.get(2).size());
+        assertTrue(TaskDao.chunk(new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    public void softDeleteAndRestore_coverEveryId() {
+        List<Integer> ids = insertTasks(COUNT);
+
+        assertEquals(COUNT, db.taskDao().softDeleteAll(ids, 1234L));
+        Task deleted = db.taskDao().getTaskById(ids.get(COUNT - 1));
+        assertTrue(deleted.isDeleted);
+        assertEquals(1234L, deleted.deletedTimestamp);
+
+        assertEquals(COUNT, db.taskDao().restoreAll(ids));
+        Task restored = db.taskDao().getTaskById(ids.get(0));
+        assertFalse(restored.isDeleted);
+        assertEquals(0L, restored.deletedTimestamp);
+    }
+
+    @Test
+    public void setCompletedAll_togglesCompletion() {
+        List<Integer> ids = insertTasks(COUNT);
+
+        assertEquals(COUNT, db.taskDao().setCompletedAll(ids, true, 99L));
+        assertTrue(db.taskDao().getTaskById(ids.get(TaskDao.MAX_IDS_PER_STATEMENT)).isCompleted);
+
+        assertEquals(COUNT, db.taskDao().setCompletedAll(ids, false, 0L));
+        assertFalse(db.taskDao().getTaskById(ids.get(TaskDao.MAX_IDS_PER_STATEMENT)).isCompleted);
+    }
+
+    @Test
+    public void deleteAll_removesOnlyTheGivenIds() {
+        List<Integer> ids = insertTasks(COUNT);
+        int kept = ids.remove(ids.size() - 1);
+
+        assertEquals(COUNT - 1, db.taskDao().deleteAll(ids));
+        assertNull(db.taskDao().getTaskById(ids.get(0)));
+        assertTrue(db.taskDao().getTaskById(kept) != null);
+    }
+
+    private List<Integer> insertTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(TestTasks.task("Task " + i).build());
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (long id : db.taskDao().insertAll(tasks)) {
+            ids.add((int) id);
+        }
+        return ids;
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,122 @@
+package com.shejan.nextdo;
+
+import android.database.Cursor;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs EXPLAIN QUERY PLAN for every TaskDao query against the real schema and
+ * fails if any of them falls back to a full table scan or a temporary sort.
+ * The SQL is TaskDao's own (its query constants); SQLite numbers named
+ * arguments in order of first use, which is the order they are bound here.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskDaoQueryPlanTest {
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void getActiveTasks_usesIndex() {
+        assertIndexed(TaskDao.ACTIVE_TASKS);
+    }
+
+    @Test
+    public void getCompletedTasks_usesIndex() {
+        assertIndexed(TaskDao.COMPLETED_TASKS);
+    }
+
+    @Test
+    public void timeline_usesIndex() {
+        assertIndexed(TaskDao.TIMELINE_REMINDERS_AFTER, 0L, 0L, 0L, 0L, 0L, 0, 30);
+        assertIndexed(TaskDao.TIMELINE_REMINDERS_BEFORE, 0L, 0L, 0L, 0L, 0L, 0, 30);
+        assertIndexed(TaskDao.TIMELINE_NO_REMINDER_OLDER, 0, 30);
+        assertIndexed(TaskDao.TIMELINE_NO_REMINDER_NEWER, 0, 30);
+    }
+
+    @Test
+    public void getStats_usesIndex() {
+        // Including the per-priority counts, which read the (isDeleted, isCompleted, priority) index.
+        assertIndexed(TaskDao.STATS);
+    }
+
+    @Test
+    public void getAllTasksSync_usesIndex() {
+        assertIndexed(TaskDao.ALL_TASKS);
+    }
+
+    @Test
+    public void getUpcomingTasks_usesIndex() {
+        assertIndexed(TaskDao.UPCOMING_TASKS, 0L, 20);
+    }
+
+    @Test
+    public void reminderQueue_usesIndex() {
+        assertIndexed(TaskDao.NEXT_REMINDER_TIME);
+        assertIndexed(TaskDao.DUE_REMINDERS, 0L);
+        assertIndexed(TaskDao.MARK_PAST_REMINDERS_NOTIFIED, 0L);
+    }
+
+    @Test
+    public void rescheduleCursor_usesIndex() {
+        assertIndexed(TaskDao.REMINDERS_AFTER, 0L, 0, 100);
+    }
+
+    @Test
+    public void pointLookups_useIndex() {
+        assertIndexed(TaskDao.TASK_BY_ID, 1);
+        assertIndexed(TaskDao.TASK_BY_ALARM_ID, 1);
+        assertIndexed(TaskDao.TASKS_BY_IDS, 1);
+    }
+
+    @Test
+    public void getDeletedTasks_usesIndex() {
+        assertIndexed(TaskDao.DELETED_TASKS);
+    }
+
+    @Test
+    public void cleanupQueries_useIndex() {
+        assertIndexed(TaskDao.DELETE_ALL_DELETED);
+        assertIndexed(TaskDao.OLDEST_DELETED_TIMESTAMP);
+        assertIndexed(TaskDao.OLDEST_COMPLETED_TIMESTAMP);
+        assertIndexed(TaskDao.DELETE_OLD_TASKS, 0L, 200);
+        assertIndexed(TaskDao.DELETE_OLD_COMPLETED_TASKS, 0L, 200);
+    }
+
+    private void assertIndexed(String sql, Object... args) {
+        List<String> plan = explain(sql, args);
+        assertTrue("Empty query plan for " + sql, !plan.isEmpty());
+        for (String step : plan) {
+            if (isFullScan(step) || step.contains("TEMP B-TREE")) {
+                fail("Query regressed to a full scan or temp sort:\n  " + sql + "\nPlan: " + plan);
+            }
+        }
+    }
+
+    private static boolean isFullScan(String step) {
+        // Older SQLite prints "SCAN TABLE tasks", newer prints "SCAN tasks".
+        return step.startsWith("SCAN TABLE tasks") || step.startsWith("SCAN tasks");
+    }
+
+    private List<String> explain(String sql, Object... args) {
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.database().query(new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + sql, args))) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        return plan;
+    }
+}
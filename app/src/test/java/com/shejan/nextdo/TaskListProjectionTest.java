@@ -0,0 +1,74 @@
+package com.shejan.nextdo;
+
+import android.database.Cursor;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks TaskDao.LIST_COLUMNS against a real database: list rows carry a capped
+ * description preview, and the full row is still there for getTaskById.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskListProjectionTest {
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void longDescription_isCutToPreview() {
+        String description = repeat('x', TaskDao.DESCRIPTION_PREVIEW_LENGTH * 5);
+        int id = db.insert(task("Notes").description(description).build());
+
+        String preview = listDescription(id);
+        assertEquals(TaskDao.DESCRIPTION_PREVIEW_LENGTH + 1, preview.length());
+        assertTrue(preview.endsWith("\u2026"));
+        assertEquals(description, db.taskDao().getTaskById(id).description);
+    }
+
+    @Test
+    public void shortDescription_isUnchanged() {
+        String exact = repeat('y', TaskDao.DESCRIPTION_PREVIEW_LENGTH);
+        assertEquals(exact, listDescription(db.insert(task("Exact").description(exact).build())));
+        assertEquals("", listDescription(insert("Empty", "")));
+    }
+
+    @Test
+    public void setCompletedById_keepsFullDescription() {
+        String description = repeat('z', TaskDao.DESCRIPTION_PREVIEW_LENGTH * 2);
+        int id = db.insert(task("Long").description(description).build());
+
+        db.taskDao().setCompletedAll(Collections.singletonList(id), true, 1L);
+
+        Task stored = db.taskDao().getTaskById(id);
+        assertTrue(stored.isCompleted);
+        assertEquals(description, stored.description);
+    }
+
+    private String listDescription(int id) {
+        SimpleSQLiteQuery query = new SimpleSQLiteQuery(
+                "SELECT " + TaskDao.LIST_COLUMNS + " FROM tasks WHERE id = ?", new Object[] { id });
+        try (Cursor cursor = db.database().query(query)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getString(cursor.getColumnIndexOrThrow("description"));
+        }
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
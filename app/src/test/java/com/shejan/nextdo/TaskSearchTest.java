@@ -0,0 +1,89 @@
+package com.shejan.nextdo;
+
+import androidx.paging.PagingSource;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+
+import static com.shejan.nextdo.TestTasks.itemIds;
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Loads TaskDao.searchTasksPaged through its real PagingSource to check the
+ * FTS table follows inserts, updates and deletes through Room's sync triggers,
+ * and that title hits rank first.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskSearchTest {
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void prefixMatchesTitleAndDescription() throws Exception {
+        int milk = db.insert(task("Buy milk").build());
+        int bread = db.insert(task("Groceries").description("bread and milkshake").build());
+        db.insert(task("Call mom").build());
+
+        assertEquals(Arrays.asList(milk, bread), search("mil"));
+        assertEquals(Collections.singletonList(milk), search("buy mi"));
+        assertEquals(Collections.emptyList(), search("xyz"));
+    }
+
+    @Test
+    public void titleMatchesRankAboveDescriptionMatches() throws Exception {
+        int descriptionOnly = db.insert(task("Errands").description("report for work").build());
+        int olderTitle = db.insert(task("Report draft").build());
+        int newerDescription = db.insert(task("Misc").description("send report").build());
+
+        assertEquals(Arrays.asList(olderTitle, newerDescription, descriptionOnly), search("report"));
+    }
+
+    @Test
+    public void matchesWordsWithCombiningMarks() throws Exception {
+        int bengali = db.insert(task("\u0995\u09be\u099c \u09b6\u09c7\u09b7").build());
+        db.insert(task("Other").build());
+
+        assertEquals(Collections.singletonList(bengali), search("\u0995\u09be\u099c"));
+        assertEquals(Collections.singletonList(bengali), search("\u0995\u09be"));
+    }
+
+    @Test
+    public void followsUpdatesAndDeletes() throws Exception {
+        int id = db.insert(task("Old title").build());
+        Task task = db.taskDao().getTaskById(id);
+
+        task.title = "New title";
+        db.taskDao().update(task);
+        assertEquals(Collections.emptyList(), search("old"));
+        assertEquals(Collections.singletonList(id), search("new"));
+
+        task.isDeleted = true;
+        db.taskDao().update(task);
+        assertEquals(Collections.emptyList(), search("new"));
+
+        task.isDeleted = false;
+        db.taskDao().update(task);
+        db.taskDao().delete(task);
+        assertEquals(Collections.emptyList(), search("new"));
+    }
+
+    private List<Integer> search(String input) throws InterruptedException {
+        PagingSource<Integer, TaskListItem> source = db.taskDao().searchTasksPaged(SearchQuery.toMatch(input),
+                SearchQuery.toMatch(input, "title"));
+        PagingSource.LoadParams<Integer> params = new PagingSource.LoadParams.Refresh<>(null, 100, false);
+        PagingSource.LoadResult<Integer, TaskListItem> result = BuildersKt.runBlocking(EmptyCoroutineContext.INSTANCE,
+                (scope, continuation) -> source.load(params, continuation));
+        return itemIds(((PagingSource.LoadResult.Page<Integer, TaskListItem>) result).getData());
+    }
+}
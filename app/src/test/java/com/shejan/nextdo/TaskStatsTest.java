@@ -0,0 +1,71 @@
+package com.shejan.nextdo;
+
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks TaskDao.getStats against a mix of rows and that the LiveData re-runs
+ * when the table changes.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskStatsTest {
+    private static final long FAR_FUTURE = 4_102_444_800_000L; // 2100-01-01
+
+    // Room's LiveData queries run inline so only the main looper needs idling.
+    @Rule
+    public final InMemoryDatabaseRule db = InMemoryDatabaseRule.inlineQueries();
+
+    @Test
+    public void getStats_countsEachState() {
+        db.insert(task("HIGH").priority("HIGH").reminder(1L, 0).build());
+        db.insert(task("HIGH").priority("HIGH").reminder(FAR_FUTURE, 0).build());
+        db.insert(task("LOW").priority("LOW").build());
+        db.insert(task("MEDIUM").priority("MEDIUM").reminder(1L, 0).completed(true).build());
+        db.insert(task("HIGH").priority("HIGH").reminder(1L, 0).deleted(true).build());
+
+        TaskStats stats = observe(db.taskDao().getStats()).get(0);
+
+        assertEquals(3, stats.active);
+        assertEquals(1, stats.completed);
+        assertEquals(1, stats.deleted);
+        assertEquals(1, stats.overdue);
+        assertEquals(2, stats.highPriority);
+        assertEquals(0, stats.mediumPriority);
+        assertEquals(1, stats.lowPriority);
+    }
+
+    @Test
+    public void getStats_updatesAfterTableChange() {
+        List<TaskStats> values = observe(db.taskDao().getStats());
+        assertEquals(0, values.get(values.size() - 1).active);
+
+        db.insert(task("MEDIUM").priority("MEDIUM").build());
+        shadowOf(Looper.getMainLooper()).idle();
+
+        TaskStats latest = values.get(values.size() - 1);
+        assertEquals(1, latest.active);
+        assertEquals(1, latest.mediumPriority);
+    }
+
+    private static <T> List<T> observe(LiveData<T> liveData) {
+        List<T> values = new ArrayList<>();
+        Observer<T> observer = values::add;
+        liveData.observeForever(observer);
+        shadowOf(Looper.getMainLooper()).idle();
+        return values;
+    }
+}
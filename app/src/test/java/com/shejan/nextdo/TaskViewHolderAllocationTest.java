@@ -0,0 +1,134 @@
+package com.shejan.nextdo;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.CompoundButton;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the bytes TaskListAdapter.TaskViewHolder.bind allocates when visible
+ * rows are rebound. Partial masks that don't touch text must not allocate at
+ * all. A full bind may only allocate what the framework's own setText calls do:
+ * it is measured against the same view calls made directly.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskViewHolderAllocationTest {
+    private static final long BASE = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    private static final int ROWS = 20; // about a screen of list rows
+    private static final int WARMUP_PASSES = 2_000;
+    private static final int PASSES = 2_000;
+
+    private com.sun.management.ThreadMXBean threads;
+    private TaskListAdapter.TaskViewHolder holder;
+    private ReminderTextCache reminderText;
+    private ColorStateList accentTint;
+    private TaskListItem[] tasks;
+
+    @Before
+    public void setUp() {
+        threads = threadMXBean();
+        Assume.assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Context context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.Theme_NextDO);
+        TaskListAdapter adapter = new TaskListAdapter(new TaskListAdapter.TaskDiff(), null);
+        holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+        reminderText = new ReminderTextCache(Locale.US);
+        accentTint = ColorStateList.valueOf(0xFF34C759);
+
+        tasks = new TaskListItem[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            tasks[i] = new TaskListItem(i + 1, "Task " + i, "Description " + i, i % 2 == 0 ? "HIGH" : "LOW",
+                    BASE + i * 3_600_000L, null, false, false, 0, 0);
+        }
+    }
+
+    @Test
+    public void bind_partialMasksDoNotAllocate() {
+        int[] masks = { TaskChanges.COMPLETION, TaskChanges.ACCENT, TaskChanges.COMPLETION | TaskChanges.ACCENT, 0 };
+        for (int mask : masks) {
+            // The first full bind per row fills the reminder cache and applies the tint.
+            for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+                bindAll(TaskChanges.ALL);
+                bindAll(mask);
+            }
+
+            long allocated = measure(() -> bindAll(mask));
+
+            assertTrue("Rebinding with mask " + mask + " allocated " + allocated + " bytes", allocated < 1024);
+        }
+    }
+
+    @Test
+    public void bind_fullMaskAllocatesNoMoreThanItsViewCalls() {
+        View root = holder.itemView;
+        TextView title = root.findViewById(R.id.text_title);
+        TextView description = root.findViewById(R.id.text_description);
+        TextView priority = root.findViewById(R.id.chip_priority);
+        TextView reminder = root.findViewById(R.id.text_reminder);
+        View details = root.findViewById(R.id.details_layout);
+        CompoundButton checkbox = root.findViewById(R.id.checkbox_completed);
+        Runnable directCalls = () -> {
+            for (TaskListItem task : tasks) {
+                title.setText(task.title);
+                description.setText(task.description);
+                description.setVisibility(View.VISIBLE);
+                priority.setText(task.priority);
+                priority.setVisibility(View.VISIBLE);
+                reminder.setText(reminderText.format(task.reminderTime));
+                reminder.setVisibility(View.VISIBLE);
+                details.setVisibility(View.VISIBLE);
+                checkbox.setOnCheckedChangeListener(null);
+                checkbox.setChecked(task.isCompleted);
+            }
+        };
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            bindAll(TaskChanges.ALL);
+            directCalls.run();
+        }
+
+        long viewCalls = measure(directCalls);
+        long bind = measure(() -> bindAll(TaskChanges.ALL));
+
+        // One object per bind would be 16+ bytes each; allow well under that on average.
+        long slack = (long) ROWS * PASSES / 4;
+        assertTrue("Full binds allocated " + bind + " bytes vs " + viewCalls + " for the view calls alone",
+                bind <= viewCalls + slack);
+    }
+
+    private void bindAll(int changes) {
+        for (TaskListItem task : tasks) {
+            holder.bind(task, changes, reminderText, accentTint, null);
+        }
+    }
+
+    private long measure(Runnable pass) {
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < PASSES; i++) {
+            pass.run();
+        }
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+}
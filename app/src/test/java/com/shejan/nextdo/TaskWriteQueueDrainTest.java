@@ -0,0 +1,146 @@
+package com.shejan.nextdo;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drains a real TaskWriteQueue against an in-memory database. Each test holds
+ * the writer on a gate while it queues, so the writes under test are drained
+ * together as one batch.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TaskWriteQueueDrainTest {
+    private static final long TIMEOUT_S = 5;
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    private TaskWriteQueue queue;
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        queue = new TaskWriteQueue(ApplicationProvider.getApplicationContext(), db.database());
+        queue.execute(dao -> awaitQuietly(gate), false, null);
+    }
+
+    @Test
+    public void writesAndCallbacks_runInSubmissionOrder() throws Exception {
+        List<String> callbacks = Collections.synchronizedList(new ArrayList<>());
+        Task task = task("Draft").build();
+        AtomicReference<String> seenTitle = new AtomicReference<>();
+
+        queue.insert(task, () -> callbacks.add("insert"));
+        queue.execute(dao -> {
+            Task stored = dao.getTaskById(task.id);
+            stored.title = "Final";
+            dao.update(stored);
+        }, true, () -> callbacks.add("rename"));
+        queue.execute(dao -> seenTitle.set(dao.getTaskById(task.id).title), false,
+                () -> callbacks.add("read"));
+        drain();
+
+        assertEquals("Final", seenTitle.get());
+        assertEquals(Arrays.asList("insert", "rename", "read"), callbacks);
+    }
+
+    @Test
+    public void queuedWrites_shareOneTransaction() throws Exception {
+        AtomicInteger firstRuns = new AtomicInteger();
+        AtomicInteger lastRuns = new AtomicInteger();
+        AtomicInteger failing = new AtomicInteger();
+
+        queue.execute(dao -> {
+            firstRuns.incrementAndGet();
+            dao.insert(task("First").build());
+        }, false, null);
+        queue.execute(dao -> {
+            if (failing.getAndIncrement() == 0) {
+                throw new IllegalStateException("fails in the batch only");
+            }
+        }, false, null);
+        queue.execute(dao -> {
+            lastRuns.incrementAndGet();
+            dao.insert(task("Last").build());
+        }, false, null);
+        drain();
+
+        // The failure rolled back the first insert with it; the retry applied it again.
+        assertEquals(2, firstRuns.get());
+        assertEquals(1, lastRuns.get());
+        assertEquals(2, db.taskDao().getAllTasksSync().size());
+    }
+
+    @Test
+    public void failedWrite_getsItsFailureAndTheOthersCommit() throws Exception {
+        Task before = task("Before").build();
+        Task after = task("After").build();
+        List<String> callbacks = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        IllegalStateException error = new IllegalStateException("bad write");
+
+        queue.insert(before, () -> callbacks.add("before"));
+        queue.execute(dao -> {
+            throw error;
+        }, true, () -> callbacks.add("failed"), failure::set);
+        queue.insert(after, () -> callbacks.add("after"));
+        drain();
+
+        assertEquals(Arrays.asList("before", "after"), callbacks);
+        assertSame(error, failure.get());
+        assertTrue(before.id > 0);
+        assertTrue(after.id > 0);
+        assertNotEquals(before.id, after.id);
+        assertEquals(2, db.taskDao().getAllTasksSync().size());
+        assertEquals("After", db.taskDao().getTaskById(after.id).title);
+    }
+
+    @Test
+    public void ignoredInsert_isReportedAsFailed() throws Exception {
+        int id = db.insert(task("Stored").build());
+        AtomicInteger completed = new AtomicInteger();
+
+        queue.insert(task("Duplicate").id(id).build(), completed::incrementAndGet);
+        drain();
+
+        assertEquals(0, completed.get());
+        assertEquals("Stored", db.taskDao().getTaskById(id).title);
+    }
+
+    // Opens the gate and waits until everything queued so far has drained.
+    private void drain() throws InterruptedException {
+        CountDownLatch drained = new CountDownLatch(1);
+        queue.execute(dao -> {
+        }, false, drained::countDown);
+        gate.countDown();
+        assertTrue(drained.await(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_S, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TaskWriteQueueTest {
+
+    @Test
+    public void repeatedUpdatesOfSameTask_keepOnlyLast() {
+        TaskWriteQueue.Write first = update(task(1));
+        TaskWriteQueue.Write second = update(task(1));
+        TaskWriteQueue.Write third = update(task(1));
+
+        assertEquals(1, TaskWriteQueue.coalesce(batch(first, second, third)));
+        assertTrue(first.superseded);
+        assertTrue(second.superseded);
+        assertFalse(third.superseded);
+    }
+
+    @Test
+    public void updatesOfDifferentTasks_areAllApplied() {
+        List<TaskWriteQueue.Write> writes = batch(update(task(1)), update(task(2)), update(task(3)));
+
+        assertEquals(3, TaskWriteQueue.coalesce(writes));
+    }
+
+    @Test
+    public void deleteOrInsertOfSameTask_endsCoalescingWindow() {
+        Task task = task(7);
+        TaskWriteQueue.Write before = update(task);
+        TaskWriteQueue.Write delete = new TaskWriteQueue.Write(TaskWriteQueue.KIND_DELETE, task, dao -> {
+        }, null);
+        TaskWriteQueue.Write reinsert = new TaskWriteQueue.Write(TaskWriteQueue.KIND_INSERT, task, dao -> {
+        }, null);
+        TaskWriteQueue.Write after = update(task);
+
+        assertEquals(4, TaskWriteQueue.coalesce(batch(before, delete, reinsert, after)));
+        assertFalse(before.superseded);
+        assertFalse(after.superseded);
+    }
+
+    @Test
+    public void barrier_endsCoalescingWindowForAllTasks() {
+        TaskWriteQueue.Write before = update(task(1));
+        TaskWriteQueue.Write barrier = new TaskWriteQueue.Write(TaskWriteQueue.KIND_BARRIER, null, dao -> {
+        }, null);
+        TaskWriteQueue.Write after = update(task(1));
+
+        assertEquals(3, TaskWriteQueue.coalesce(batch(before, barrier, after)));
+        assertFalse(before.superseded);
+    }
+
+    @Test
+    public void updatesOfNotYetInsertedTasks_areNeverMerged() {
+        TaskWriteQueue.Write first = update(task(0));
+        TaskWriteQueue.Write second = update(task(0));
+
+        assertEquals(2, TaskWriteQueue.coalesce(batch(first, second)));
+        assertFalse(first.superseded);
+    }
+
+    @Test
+    public void supersededWrites_keepTheirPositionForCallbacks() {
+        List<String> order = new ArrayList<>();
+        List<TaskWriteQueue.Write> writes = batch(
+                new TaskWriteQueue.Write(TaskWriteQueue.KIND_UPDATE, task(1), dao -> {
+                }, () -> order.add("softDelete")),
+                new TaskWriteQueue.Write(TaskWriteQueue.KIND_UPDATE, task(1), dao -> {
+                }, () -> order.add("restore")));
+
+        TaskWriteQueue.coalesce(writes);
+        for (TaskWriteQueue.Write write : writes) {
+            write.onComplete.run();
+        }
+
+        assertEquals(Arrays.asList("softDelete", "restore"), order);
+        assertTrue(writes.get(0).superseded);
+    }
+
+    private static TaskWriteQueue.Write update(Task task) {
+        return new TaskWriteQueue.Write(TaskWriteQueue.KIND_UPDATE, task, dao -> {
+        }, null);
+    }
+
+    private static Task task(int id) {
+        Task task = new Task();
+        task.id = id;
+        return task;
+    }
+
+    private static List<TaskWriteQueue.Write> batch(TaskWriteQueue.Write... writes) {
+        return new ArrayList<>(Arrays.asList(writes));
+    }
+}
@@ -0,0 +1,91 @@
+package com.shejan.nextdo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Task rows for tests: {@code task("Title").reminder(t, alarmId).completed(true).build()},
+ * or {@code listItem()} for the row as a list screen sees it. Anything not set
+ * keeps the entity's defaults.
+ */
+final class TestTasks {
+
+    private TestTasks() {
+    }
+
+    static Builder task(String title) {
+        return new Builder(title);
+    }
+
+    /** The ids of {@code tasks}, in order. */
+    static List<Integer> ids(List<? extends Task> tasks) {
+        List<Integer> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(task.id);
+        }
+        return ids;
+    }
+
+    /** The ids of list rows, in order. */
+    static List<Integer> itemIds(List<? extends TaskListItem> items) {
+        List<Integer> ids = new ArrayList<>(items.size());
+        for (TaskListItem item : items) {
+            ids.add(item.id);
+        }
+        return ids;
+    }
+
+    static final class Builder {
+        private final Task task = new Task();
+
+        private Builder(String title) {
+            task.title = title;
+        }
+
+        Builder id(int id) {
+            task.id = id;
+            return this;
+        }
+
+        Builder description(String description) {
+            task.description = description;
+            return this;
+        }
+
+        Builder priority(String priority) {
+            task.priority = priority;
+            return this;
+        }
+
+        Builder reminder(long reminderTime, int alarmId) {
+            task.reminderTime = reminderTime;
+            task.alarmId = alarmId;
+            return this;
+        }
+
+        Builder repeat(String repeat) {
+            task.repeat = repeat;
+            return this;
+        }
+
+        Builder completed(boolean completed) {
+            task.isCompleted = completed;
+            return this;
+        }
+
+        Builder deleted(boolean deleted) {
+            task.isDeleted = deleted;
+            return this;
+        }
+
+        Task build() {
+            return task;
+        }
+
+        /** The same row as a list query returns it (a short description is not cut). */
+        TaskListItem listItem() {
+            return new TaskListItem(task.id, task.title, task.description, task.priority, task.reminderTime,
+                    task.repeat, task.isCompleted, task.isDeleted, task.alarmId, task.deletedTimestamp);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimelineBucketsTest {
+    private static final TimeZone ZONE = TimeZone.getTimeZone("Europe/Berlin");
+
+    @Test
+    public void boundaries_areLocalMidnights() {
+        // Wednesday 2024-05-15 14:30 local.
+        long now = time(2024, Calendar.MAY, 15, 14, 30);
+        TimelineBuckets buckets = TimelineBuckets.at(now, ZONE, Calendar.MONDAY);
+
+        assertEquals(time(2024, Calendar.MAY, 16, 0, 0), buckets.tomorrowStart);
+        assertEquals(time(2024, Calendar.MAY, 17, 0, 0), buckets.dayAfterStart);
+        assertEquals(time(2024, Calendar.MAY, 20, 0, 0), buckets.weekEnd);
+    }
+
+    @Test
+    public void bucketOf_followsTheBoundaries() {
+        long now = time(2024, Calendar.MAY, 15, 14, 30);
+        TimelineBuckets buckets = TimelineBuckets.at(now, ZONE, Calendar.MONDAY);
+
+        assertEquals(TimelineBuckets.NO_REMINDER, buckets.bucketOf(0, now));
+        assertEquals(TimelineBuckets.OVERDUE, buckets.bucketOf(time(2024, Calendar.MAY, 15, 9, 0), now));
+        assertEquals(TimelineBuckets.TODAY, buckets.bucketOf(now, now));
+        assertEquals(TimelineBuckets.TODAY, buckets.bucketOf(time(2024, Calendar.MAY, 15, 23, 59), now));
+        assertEquals(TimelineBuckets.TOMORROW, buckets.bucketOf(time(2024, Calendar.MAY, 16, 0, 0), now));
+        assertEquals(TimelineBuckets.THIS_WEEK, buckets.bucketOf(time(2024, Calendar.MAY, 19, 22, 0), now));
+        assertEquals(TimelineBuckets.LATER, buckets.bucketOf(time(2024, Calendar.MAY, 20, 0, 0), now));
+    }
+
+    @Test
+    public void lastDayOfWeek_hasEmptyThisWeek() {
+        // Sunday, with weeks starting Monday: tomorrow already starts a new week.
+        long now = time(2024, Calendar.MAY, 19, 10, 0);
+        TimelineBuckets buckets = TimelineBuckets.at(now, ZONE, Calendar.MONDAY);
+
+        assertEquals(buckets.dayAfterStart, buckets.weekEnd);
+        assertEquals(TimelineBuckets.TOMORROW, buckets.bucketOf(time(2024, Calendar.MAY, 20, 12, 0), now));
+        assertEquals(TimelineBuckets.LATER, buckets.bucketOf(time(2024, Calendar.MAY, 21, 12, 0), now));
+    }
+
+    @Test
+    public void dstChange_keepsCalendarDays() {
+        // Clocks go forward on 2024-03-31 in Berlin; that day is 23 hours long.
+        long now = time(2024, Calendar.MARCH, 30, 12, 0);
+        TimelineBuckets buckets = TimelineBuckets.at(now, ZONE, Calendar.MONDAY);
+
+        assertEquals(time(2024, Calendar.MARCH, 31, 0, 0), buckets.tomorrowStart);
+        assertEquals(time(2024, Calendar.APRIL, 1, 0, 0), buckets.dayAfterStart);
+        assertEquals(23L * 60 * 60 * 1000, buckets.dayAfterStart - buckets.tomorrowStart);
+    }
+
+    private static long time(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(ZONE);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,139 @@
+package com.shejan.nextdo;
+
+import androidx.paging.PagingSource;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.coroutines.EmptyCoroutineContext;
+import kotlinx.coroutines.BuildersKt;
+
+import static com.shejan.nextdo.TestTasks.itemIds;
+import static com.shejan.nextdo.TestTasks.task;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Loads the timeline through TimelinePagingSource and checks the
+ * row order and buckets that TimelineHeaderDecoration relies on.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TimelineQueryTest {
+    // Bucket boundaries passed to the query: now, tomorrow, the day after, week end.
+    private static final long NOW = 10_000;
+    private static final long TOMORROW = 20_000;
+    private static final long DAY_AFTER = 30_000;
+    private static final long WEEK_END = 40_000;
+
+    @Rule
+    public final InMemoryDatabaseRule db = new InMemoryDatabaseRule();
+
+    @Test
+    public void getTimelinePaged_ordersByBucketThenDueTime() throws Exception {
+        // Inserted out of order so the result can't just follow rowid.
+        int later = db.insert(task("Task").reminder(50_000, 0).build());
+        int noReminderOld = db.insert(task("Task").build());
+        int todayB = db.insert(task("Task").reminder(15_000, 0).build());
+        int overdue = db.insert(task("Task").reminder(5_000, 0).build());
+        int thisWeek = db.insert(task("Task").reminder(35_000, 0).build());
+        int todayA = db.insert(task("Task").reminder(12_000, 0).build());
+        int todayTie = db.insert(task("Task").reminder(15_000, 0).build());
+        int tomorrow = db.insert(task("Task").reminder(25_000, 0).build());
+        int noReminderNew = db.insert(task("Task").build());
+        db.insert(task("Task").reminder(6_000, 0).completed(true).build());
+        db.insert(task("Task").reminder(7_000, 0).deleted(true).build());
+
+        List<TimelineTask> rows = loadAll();
+
+        assertEquals(Arrays.asList(overdue, todayA, todayB, todayTie, tomorrow, thisWeek, later,
+                noReminderNew, noReminderOld), itemIds(rows));
+        assertEquals(Arrays.asList(TimelineBuckets.OVERDUE, TimelineBuckets.TODAY, TimelineBuckets.TODAY,
+                TimelineBuckets.TODAY, TimelineBuckets.TOMORROW, TimelineBuckets.THIS_WEEK, TimelineBuckets.LATER,
+                TimelineBuckets.NO_REMINDER, TimelineBuckets.NO_REMINDER), buckets(rows));
+    }
+
+    @Test
+    public void getTimelinePaged_pagesKeepTheOrder() throws Exception {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            // Reverse due order, every third without a reminder.
+            expected.add(db.insert(task("Task").reminder(i % 3 == 0 ? 0 : 100_000 - i, 0).build()));
+        }
+
+        List<TimelineTask> rows = new ArrayList<>();
+        TimelinePagingSource source = source();
+        TimelinePagingSource.Key key = null;
+        do {
+            PagingSource.LoadResult.Page<TimelinePagingSource.Key, TimelineTask> page = load(source,
+                    key == null ? new PagingSource.LoadParams.Refresh<>(null, 7, false)
+                            : new PagingSource.LoadParams.Append<>(key, 7, false));
+            rows.addAll(page.getData());
+            key = page.getNextKey();
+        } while (key != null);
+
+        assertEquals(expected.size(), rows.size());
+        for (int i = 1; i < rows.size(); i++) {
+            TimelineTask previous = rows.get(i - 1);
+            TimelineTask row = rows.get(i);
+            assertTrue("buckets out of order at " + i, previous.bucket <= row.bucket);
+            if (previous.bucket == row.bucket && row.bucket == TimelineBuckets.NO_REMINDER) {
+                assertTrue("no-reminder rows not newest first at " + i, previous.id > row.id);
+            } else if (previous.bucket == row.bucket) {
+                assertTrue("due times out of order at " + i, previous.reminderTime <= row.reminderTime);
+            }
+        }
+    }
+
+    @Test
+    public void refreshFromKey_prependsTheRowsBefore() throws Exception {
+        for (int i = 1; i <= 12; i++) {
+            db.insert(task("Task").reminder(i % 4 == 0 ? 0 : 50_000 - i, 0).build());
+        }
+        List<Integer> all = itemIds(loadAll());
+
+        // Refresh at the second no-reminder row, then page backwards across the section change.
+        TimelinePagingSource source = source();
+        TimelineTask anchor = loadAll().get(10);
+        PagingSource.LoadResult.Page<TimelinePagingSource.Key, TimelineTask> page = load(source,
+                new PagingSource.LoadParams.Refresh<>(TimelinePagingSource.Key.of(anchor), 3, false));
+        List<TimelineTask> rows = new ArrayList<>(page.getData());
+        TimelinePagingSource.Key key = page.getPrevKey();
+        while (key != null) {
+            page = load(source, new PagingSource.LoadParams.Prepend<>(key, 3, false));
+            rows.addAll(0, page.getData());
+            key = page.getPrevKey();
+        }
+
+        assertEquals(all, itemIds(rows));
+    }
+
+    private List<TimelineTask> loadAll() throws InterruptedException {
+        return load(source(), new PagingSource.LoadParams.Refresh<>(null, 100, false)).getData();
+    }
+
+    private TimelinePagingSource source() {
+        return new TimelinePagingSource(db.database(), NOW, TOMORROW, DAY_AFTER, WEEK_END);
+    }
+
+    private static PagingSource.LoadResult.Page<TimelinePagingSource.Key, TimelineTask> load(
+            TimelinePagingSource source, PagingSource.LoadParams<TimelinePagingSource.Key> params)
+            throws InterruptedException {
+        PagingSource.LoadResult<TimelinePagingSource.Key, TimelineTask> result = BuildersKt.runBlocking(
+                EmptyCoroutineContext.INSTANCE, (scope, continuation) -> source.load(params, continuation));
+        return (PagingSource.LoadResult.Page<TimelinePagingSource.Key, TimelineTask>) result;
+    }
+
+    private static List<Integer> buckets(List<TimelineTask> rows) {
+        List<Integer> buckets = new ArrayList<>();
+        for (TimelineTask row : rows) {
+            buckets.add(row.bucket);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,60 @@
+package com.shejan.nextdo;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WidgetRefreshSchedulerTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    public void unknownSnapshot_alwaysRefreshes() {
+        assertTrue(WidgetRefreshScheduler.affectsUpcoming(null, task(1, 0), false, NOW));
+    }
+
+    @Test
+    public void displayedTask_alwaysRefreshes() {
+        WidgetRefreshScheduler.DisplayedSet set = set(true, NOW + 500, 1, 2, 3);
+        Task completed = task(2, NOW + 100);
+        completed.isCompleted = true;
+
+        assertTrue(WidgetRefreshScheduler.affectsUpcoming(set, completed, false, NOW));
+        assertTrue(WidgetRefreshScheduler.affectsUpcoming(set, task(3, 0), true, NOW));
+    }
+
+    @Test
+    public void hiddenTaskWithoutFutureReminder_isSkipped() {
+        WidgetRefreshScheduler.DisplayedSet set = set(false, NOW + 500, 1);
+
+        assertFalse(WidgetRefreshScheduler.affectsUpcoming(set, task(9, 0), false, NOW));
+        assertFalse(WidgetRefreshScheduler.affectsUpcoming(set, task(9, NOW - 1), false, NOW));
+        assertFalse(WidgetRefreshScheduler.affectsUpcoming(set, task(9, NOW + 100), true, NOW));
+
+        Task deleted = task(9, NOW + 100);
+        deleted.isDeleted = true;
+        assertFalse(WidgetRefreshScheduler.affectsUpcoming(set, deleted, false, NOW));
+    }
+
+    @Test
+    public void futureReminder_refreshesOnlyIfItWouldBeShown() {
+        WidgetRefreshScheduler.DisplayedSet partial = set(false, NOW + 500, 1);
+        WidgetRefreshScheduler.DisplayedSet full = set(true, NOW + 500, 1);
+
+        assertTrue(WidgetRefreshScheduler.affectsUpcoming(partial, task(9, NOW + 9_000), false, NOW));
+        assertTrue(WidgetRefreshScheduler.affectsUpcoming(full, task(9, NOW + 400), false, NOW));
+        assertFalse(WidgetRefreshScheduler.affectsUpcoming(full, task(9, NOW + 9_000), false, NOW));
+    }
+
+    private static WidgetRefreshScheduler.DisplayedSet set(boolean full, long last, int... ids) {
+        return new WidgetRefreshScheduler.DisplayedSet(ids, last, full);
+    }
+
+    private static Task task(int id, long reminderTime) {
+        Task task = new Task();
+        task.id = id;
+        task.reminderTime = reminderTime;
+        return task;
+    }
+}
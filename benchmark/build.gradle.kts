@@ -0,0 +1,46 @@
+// Pure-JVM JMH benchmarks for the app's data and rendering hot paths.
+// Run with: ./gradlew :benchmark:jmh
+// Results are written to benchmark/build/results/jmh/results.json.
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// Compile the app's Android-free classes straight from its source tree so the
+// benchmarks always measure the shipping code. Anything listed here must not
+// import android.*.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/shejan/nextdo/Task.java",
+                "com/shejan/nextdo/TaskChanges.java",
+                "com/shejan/nextdo/TaskListItem.java",
+                "com/shejan/nextdo/StackBlur.java",
+                "com/shejan/nextdo/ReminderTextCache.java",
+                "com/shejan/nextdo/UpcomingTask.java",
+                "com/shejan/nextdo/WidgetSnapshot.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    // Task's @Entity/@Index annotations.
+    implementation(libs.room.common)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,53 @@
+package com.shejan.nextdo.benchmark;
+
+import com.shejan.nextdo.Task;
+import com.shejan.nextdo.TaskListItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Deterministic task lists shaped like a real user's database. */
+final class BenchmarkData {
+    static final long NOW = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    // The values R.array.priority_array stores, which TaskDao.getStats matches on.
+    private static final String[] PRIORITIES = { "NONE", "LOW", "MEDIUM", "HIGH" };
+    private static final String[] REPEATS = { "NONE", "Daily", "Weekly", "Monthly" };
+
+    private BenchmarkData() {
+    }
+
+    static List<Task> tasks(int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.id = i + 1;
+            task.alarmId = 100_000 + i;
+            task.title = "Task number " + i;
+            task.description = random.nextInt(3) == 0 ? "" : "Description for task " + i + " with some detail";
+            task.priority = PRIORITIES[random.nextInt(PRIORITIES.length)];
+            task.repeat = REPEATS[random.nextInt(REPEATS.length)];
+            // Roughly half in the past, half within the next 60 days.
+            task.reminderTime = random.nextInt(4) == 0 ? 0
+                    : NOW + (random.nextInt(120 * 24) - 60 * 24) * 3_600_000L;
+            task.isCompleted = random.nextInt(5) == 0;
+            task.isDeleted = random.nextInt(10) == 0;
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /** {@code source} as a list query returns it. */
+    static TaskListItem listItem(Task source) {
+        return listItem(source, source.title);
+    }
+
+    static TaskListItem listItem(Task source, String title) {
+        // New String instances so equals() has to compare characters, as it
+        // does for rows freshly read from Room.
+        return new TaskListItem(source.id, new String(title), new String(source.description),
+                new String(source.priority), source.reminderTime, new String(source.repeat), source.isCompleted,
+                source.isDeleted, source.alarmId, source.deletedTimestamp);
+    }
+}
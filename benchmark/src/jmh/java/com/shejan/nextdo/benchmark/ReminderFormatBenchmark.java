@@ -0,0 +1,50 @@
+package com.shejan.nextdo.benchmark;
+
+import com.shejan.nextdo.ReminderTextCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder text for a list row bind. {@code newFormatterPerBind} is the
+ * original TaskViewHolder.bind, which built a SimpleDateFormat("MMM d, h:mm a")
+ * each time; the others go through the shipping ReminderTextCache, for a time
+ * not seen before and for rows scrolled back into view.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReminderFormatBenchmark {
+    // Rows a scroll keeps re-binding; fewer than the cache's slots.
+    private static final int VISIBLE_ROWS = 32;
+
+    private final ReminderTextCache cache = new ReminderTextCache(Locale.US);
+    private long reminderTime = BenchmarkData.NOW;
+    private int row;
+
+    @Benchmark
+    public String newFormatterPerBind() {
+        reminderTime += 60_000;
+        return new SimpleDateFormat("MMM d, h:mm a", Locale.US).format(reminderTime);
+    }
+
+    @Benchmark
+    public String cacheNewTime() {
+        reminderTime += 60_000;
+        return cache.format(reminderTime);
+    }
+
+    @Benchmark
+    public String cacheRebind() {
+        row = (row + 1) % VISIBLE_ROWS;
+        return cache.format(BenchmarkData.NOW + row * 3_600_000L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.shejan.nextdo.benchmark;
+
+import com.shejan.nextdo.StackBlur;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drawer backdrop blur (radius 20) on the downscaled snapshot. 216x480 is what
+ * BlurEngine's 0.2 scale gives for a 1080x2400 screen. {@code blur} allocates
+ * fresh scratch arrays like the original MainActivity.fastBlur did;
+ * {@code blurReusingWorkspace} is what BlurEngine does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StackBlurBenchmark {
+
+    @Param({ "108x240", "216x480", "288x640" })
+    public String resolution;
+
+    @Param({ "20" })
+    public int radius;
+
+    private int width;
+    private int height;
+    private int[] source;
+    private int[] pixels;
+    private final StackBlur.Workspace workspace = new StackBlur.Workspace();
+
+    @Setup
+    public void setUp() {
+        String[] parts = resolution.split("x");
+        width = Integer.parseInt(parts[0]);
+        height = Integer.parseInt(parts[1]);
+        source = new int[width * height];
+        Random random = new Random(1);
+        for (int i = 0; i < source.length; i++) {
+            source[i] = 0xff000000 | random.nextInt(0x1000000);
+        }
+        pixels = new int[source.length];
+    }
+
+    @Setup(Level.Invocation)
+    public void resetPixels() {
+        System.arraycopy(source, 0, pixels, 0, source.length);
+    }
+
+    @Benchmark
+    public int[] blur() {
+        StackBlur.blur(pixels, width, height, radius);
+        return pixels;
+    }
+
+    @Benchmark
+    public int[] blurReusingWorkspace() {
+        StackBlur.blur(pixels, width, height, radius, workspace);
+        return pixels;
+    }
+}
@@ -0,0 +1,58 @@
+package com.shejan.nextdo.benchmark;
+
+import com.shejan.nextdo.Task;
+import com.shejan.nextdo.TaskChanges;
+import com.shejan.nextdo.TaskListItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskListAdapter.TaskDiff.areContentsTheSame over a full list refresh, where
+ * almost every row comes back from Room unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskDiffBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int size;
+
+    private List<TaskListItem> oldList;
+    private List<TaskListItem> newList;
+
+    @Setup
+    public void setUp() {
+        List<Task> tasks = BenchmarkData.tasks(size, 42);
+        oldList = new ArrayList<>(size);
+        newList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = tasks.get(i);
+            oldList.add(BenchmarkData.listItem(task));
+            newList.add(i % 100 == 0 ? BenchmarkData.listItem(task, task.title + " (edited)")
+                    : BenchmarkData.listItem(task));
+        }
+    }
+
+    @Benchmark
+    public int areContentsTheSame() {
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            if (!TaskChanges.sameContents(oldList.get(i), newList.get(i))) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
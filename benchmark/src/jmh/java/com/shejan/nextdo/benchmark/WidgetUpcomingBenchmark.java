@@ -0,0 +1,91 @@
+package com.shejan.nextdo.benchmark;
+
+import com.shejan.nextdo.Task;
+import com.shejan.nextdo.UpcomingTask;
+import com.shejan.nextdo.WidgetSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UpcomingTasksRemoteViewsFactory.onDataSetChanged. {@code filterSortAll} is the
+ * original path: filter and sort every task in memory, then format each
+ * upcoming row with a new SimpleDateFormat as getViewAt did, with no cap.
+ * {@code buildSnapshot} runs the shipping WidgetSnapshot over the rows Room
+ * returns, the first MAX_WIDGET_ITEMS already ordered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WidgetUpcomingBenchmark {
+    // UpcomingTasksRemoteViewsFactory.MAX_WIDGET_ITEMS; that class needs Android.
+    private static final int MAX_WIDGET_ITEMS = 20;
+
+    @Param({ "100", "1000", "10000" })
+    public int size;
+
+    private List<Task> allTasks;
+    private List<UpcomingTask> upcoming;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("MMM dd, HH:mm", Locale.US);
+
+    @Setup
+    public void setUp() {
+        allTasks = BenchmarkData.tasks(size, 7);
+        upcoming = upcomingQuery(allTasks);
+    }
+
+    @Benchmark
+    public String[] filterSortAll() {
+        List<Task> result = new ArrayList<>();
+        for (Task task : allTasks) {
+            if (!task.isCompleted && task.reminderTime > BenchmarkData.NOW) {
+                result.add(task);
+            }
+        }
+        result.sort(Comparator.comparingLong(t -> t.reminderTime));
+        String[] times = new String[result.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = new SimpleDateFormat("MMM dd, HH:mm", Locale.US).format(new Date(result.get(i).reminderTime));
+        }
+        return times;
+    }
+
+    @Benchmark
+    public WidgetSnapshot buildSnapshot() {
+        return WidgetSnapshot.of(upcoming, timeFormat);
+    }
+
+    // The rows TaskDao.getUpcomingTasks(NOW, MAX_WIDGET_ITEMS) returns.
+    private static List<UpcomingTask> upcomingQuery(List<Task> tasks) {
+        List<Task> matching = new ArrayList<>();
+        for (Task task : tasks) {
+            if (!task.isDeleted && !task.isCompleted && task.reminderTime > BenchmarkData.NOW) {
+                matching.add(task);
+            }
+        }
+        matching.sort(Comparator.comparingLong(t -> t.reminderTime));
+        List<UpcomingTask> rows = new ArrayList<>(MAX_WIDGET_ITEMS);
+        for (Task task : matching.subList(0, Math.min(MAX_WIDGET_ITEMS, matching.size()))) {
+            UpcomingTask row = new UpcomingTask();
+            row.id = task.id;
+            row.title = task.title;
+            row.reminderTime = task.reminderTime;
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,91 @@
+package com.shejan.nextdo.macrobenchmark;
+
+import androidx.annotation.OptIn;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.ExperimentalMetricApi;
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import kotlin.Unit;
+
+/**
+ * Launches MainActivity and records time to first frame (timeToInitialDisplayMs)
+ * and time until the first page of tasks is on screen (timeToFullDisplayMs,
+ * from MainActivity's reportFullyDrawn), plus the duration of each startup
+ * trace section.
+ *
+ * Run on a device or emulator with:
+ * ./gradlew :macrobenchmark:connectedBenchmarkAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final String PACKAGE = "com.shejan.nextdo";
+    private static final int ITERATIONS = 10;
+
+    // Mirrors StartupTrace in the app.
+    private static final String[] SECTIONS = {
+            "NextDO.Application.onCreate",
+            "NextDO.MainActivity.theme",
+            "NextDO.MainActivity.inflate",
+            "NextDO.MainActivity.drawer",
+            "NextDO.MainActivity.list",
+            "NextDO.MainActivity.onResume",
+    };
+
+    @Rule
+    public MacrobenchmarkRule rule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStartup() {
+        measure(StartupMode.COLD);
+    }
+
+    @Test
+    public void warmStartup() {
+        measure(StartupMode.WARM);
+    }
+
+    private void measure(StartupMode mode) {
+        rule.measureRepeated(PACKAGE, metrics(), CompilationMode.DEFAULT, mode, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    waitForList(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+
+    @OptIn(markerClass = ExperimentalMetricApi.class)
+    private static List<Metric> metrics() {
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new StartupTimingMetric());
+        for (String section : SECTIONS) {
+            metrics.add(new TraceSectionMetric(section, TraceSectionMetric.Mode.First));
+        }
+        return metrics;
+    }
+
+    // Either a task row or the empty view means the first load finished.
+    private static void waitForList(MacrobenchmarkScope scope) {
+        scope.getDevice().wait(Until.hasObject(By.res(Pattern.compile(PACKAGE + ":id/(text_title|empty_view)"))),
+                5_000);
+    }
+}
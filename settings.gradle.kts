@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "NextDO"
 include(":app")
+include(":benchmark")
+include(":macrobenchmark")